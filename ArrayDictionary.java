@@ -1,122 +1,161 @@
 package datastructures.concrete.dictionaries;
 
-import datastructures.interfaces.IDictionary;
 import misc.exceptions.NoSuchKeyException;
-
-public class ArrayDictionary<K, V> implements IDictionary<K, V> {
-    private Pair<K, V>[] pairs;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Small dictionary kept in unsorted parallel key, value and hash arrays, and
+ * the default bucket of ChainedHashDictionary.
+ *
+ * Lookups scan the int hashes first and call equals only on a hash match, so
+ * a miss usually never touches a key. In move-to-front mode a lookup that
+ * hits moves the entry to slot 0, shifting the entries before it back by one,
+ * so the most recently used keys stay at the start of the scan.
+ *
+ * Iterators are fail-fast: they throw ConcurrentModificationException once
+ * the entries have been added, removed or reordered since they were made. In
+ * move-to-front mode a get or containsKey hit counts as a reorder, so keys
+ * cannot be looked up while iterating over such a dictionary.
+ */
+public class ArrayDictionary<K, V> extends HashBucket<K, V> {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private K[] keys;
+    private V[] values;
+    private int[] hashes;
     private int size;
+    private final boolean moveToFront;
+    // bumped whenever entries are added, removed or reordered
+    private int modifications;
 
     public ArrayDictionary() {
-        this.pairs = new Pair[10];
-        this.size = 0;
+        this(DEFAULT_CAPACITY, false);
     }
 
+    public ArrayDictionary(int capacity) {
+        this(capacity, false);
+    }
 
     @SuppressWarnings("unchecked")
-    private Pair<K, V>[] makeArrayOfPairs(int arraySize) {
-        return (Pair<K, V>[]) (new Pair[arraySize]);
+    public ArrayDictionary(int capacity, boolean moveToFront) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.keys = (K[]) new Object[capacity];
+        this.values = (V[]) new Object[capacity];
+        this.hashes = new int[capacity];
+        this.size = 0;
+        this.moveToFront = moveToFront;
+        this.modifications = 0;
     }
 
-    @Override
-    public V get(K key) {
-        if (size == 0) {
-            throw new NoSuchKeyException();
-        } else {
-            for (int i = 0; i < size; i++) {
-                if (pairs[i].key != null && key != null) {
-                    if (pairs[i].key.equals(key)) {
-                        return pairs[i].value;
-                    }
-                } else {
-                    if (pairs[i].key == key) {
-                        return pairs[i].value;
-                    }
+    // Returns the slot holding key, or -1. The loop only reads the hashes
+    // array until a hash matches.
+    private int find(K key, int hash) {
+        int[] hashes = this.hashes;
+        int size = this.size;
+        for (int i = 0; i < size; i++) {
+            if (hashes[i] == hash) {
+                K other = keys[i];
+                if (other == key || (key != null && key.equals(other))) {
+                    return i;
                 }
             }
         }
-        throw new NoSuchKeyException();
+        return -1;
     }
 
-    @Override
-    public void put(K key, V value) {
+    // Finds key and, in move-to-front mode, moves it to slot 0.
+    private int lookup(K key, int hash) {
+        int i = find(key, hash);
+        if (moveToFront && i > 0) {
+            moveToFront(i);
+            return 0;
+        }
+        return i;
+    }
 
-        if (size >= pairs.length) {
-            Pair<K, V>[] tempArray = new Pair[size * 2];
-            for (int i = 0; i < pairs.length; i++) {
-                tempArray[i] = pairs[i];
-            }
-            pairs = tempArray;
+    private void moveToFront(int i) {
+        K key = keys[i];
+        V value = values[i];
+        int hash = hashes[i];
+        System.arraycopy(keys, 0, keys, 1, i);
+        System.arraycopy(values, 0, values, 1, i);
+        System.arraycopy(hashes, 0, hashes, 1, i);
+        keys[0] = key;
+        values[0] = value;
+        hashes[0] = hash;
+        modifications++;
+    }
 
+    @Override
+    V get(K key, int hash) {
+        int i = lookup(key, hash);
+        if (i < 0) {
+            throw new NoSuchKeyException();
         }
-        if (size == 0) {
-            pairs[size] = new Pair<>(key, value);
-            size++;
-        } else {
-            for (int i = 0; i < size; i++) {
-                if (key == null || pairs[i].key == null) {
-                    if (pairs[i].key == key) {
-                        pairs[i].value = value;
-                        return;
-                    }
-                } else {
-                    if (pairs[i].key.equals(key)) {
-                        pairs[i].value = value;
-                        return;
-                    }
-                }
+        return values[i];
+    }
 
-            }
-            pairs[size] = new Pair<>(key, value);
-            size++;
+    @Override
+    boolean put(K key, int hash, V value) {
+        int i = find(key, hash);
+        if (i >= 0) {
+            values[i] = value;
+            return false;
         }
-
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+        keys[size] = key;
+        values[size] = value;
+        hashes[size] = hash;
+        size++;
+        modifications++;
+        return true;
     }
 
     @Override
-    public V remove(K key) {
-        if (this.size == 0) {
+    V remove(K key, int hash) {
+        int i = find(key, hash);
+        if (i < 0) {
             throw new NoSuchKeyException();
         }
+        V value = values[i];
+        size--;
+        keys[i] = keys[size];
+        values[i] = values[size];
+        hashes[i] = hashes[size];
+        keys[size] = null;
+        values[size] = null;
+        modifications++;
+        return value;
+    }
 
-        for (int i = 0; i < size; i++) {
-            if (pairs[i].key != null && key != null) {
-                if (pairs[i].key.equals(key)) {
-                    V value = pairs[i].value;
-                    pairs[i] = pairs[size - 1];
-                    //setting current pair index to be the next index pair
-                    pairs[size - 1] = null;
-                    size--;
-                    return value;
-                }
-            } else {
-                if (pairs[i].key == key) {
-                    V value = pairs[i].value;
-                    pairs[i] = pairs[size - 1];
-                    //setting current pair index to be the next index pair
-                    pairs[size - 1] = null;
-                    size--;
-                    return value;
-                }
-            }
-        }
-        throw new NoSuchKeyException();
+    @Override
+    boolean containsKey(K key, int hash) {
+        return lookup(key, hash) >= 0;
     }
 
     @Override
-    public boolean containsKey(K key) {
-        for (int i = 0; i < size; i++) {
-            if (pairs[i].key != null && key != null) {
-                if (pairs[i].key.equals(key)) {
-                    return true;
-                }
-            } else {
-                if (pairs[i].key == key) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    K keyAt(int slot) {
+        return keys[slot];
+    }
+
+    @Override
+    V valueAt(int slot) {
+        return values[slot];
+    }
+
+    @Override
+    int hashAt(int slot) {
+        return hashes[slot];
     }
 
     @Override
@@ -124,19 +163,36 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
         return size;
     }
 
-    private static class Pair<K, V> {
-        public K key;
-        public V value;
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new ArrayDictionaryIterator();
+    }
+
+    private class ArrayDictionaryIterator implements Iterator<KVPair<K, V>> {
+        private final int modifications;
+        private int i;
 
-        // You may add constructors and methods to this class as necessary.
-        public Pair(K key, V value) {
-            this.key = key;
-            this.value = value;
+        public ArrayDictionaryIterator() {
+            this.modifications = ArrayDictionary.this.modifications;
+            this.i = 0;
         }
 
         @Override
-        public String toString() {
-            return this.key + "=" + this.value;
+        public boolean hasNext() {
+            return i < size;
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (modifications != ArrayDictionary.this.modifications) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            KVPair<K, V> pair = new KVPair<>(keys[i], values[i]);
+            i++;
+            return pair;
         }
     }
 }
@@ -1,83 +1,203 @@
 package datastructures.concrete;
 
-import datastructures.concrete.dictionaries.ChainedHashDictionary;
-import datastructures.interfaces.IDictionary;
+import datastructures.concrete.dictionaries.ObjectIntDictionary;
 import datastructures.interfaces.IDisjointSet;
 import datastructures.interfaces.IList;
 
+import java.util.Arrays;
+
+/**
+ * Union-find over arbitrary items, each given a dense int id by makeSet.
+ *
+ * pointers[id] is the parent of a non-root, or minus the size of the set for a
+ * root. findSet halves the path as it walks, pointing every other node at its
+ * grandparent, so it needs no extra storage. union hangs the smaller set under
+ * the larger. The *ById and unionIds methods skip hashing entirely for callers
+ * that track ids themselves. They have their own names so that, for an
+ * ArrayDisjointSet<Integer>, findSet(5) still means the item 5.
+ *
+ * Every set's ids also form a circular list through next. union splices two
+ * of these circles into one by swapping a single pair of links. That lets
+ * members list a set without looking at any other item.
+ */
 public class ArrayDisjointSet<T> implements IDisjointSet<T> {
+    private static final int DEFAULT_CAPACITY = 10;
+
     private int[] pointers;
+    private int[] next;
+    private T[] items;
     private int index;
-    private IDictionary<T, Integer> dict;
+    private int numSets;
+    private ObjectIntDictionary<T> dict;
 
     public ArrayDisjointSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ArrayDisjointSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException();
+        }
         this.index = 0;
-        this.dict = new ChainedHashDictionary<>();
-        this.pointers = new int[10];
+        this.numSets = 0;
+        this.dict = new ObjectIntDictionary<>(expectedSize);
+        this.pointers = new int[Math.max(expectedSize, 1)];
+        this.next = new int[pointers.length];
+        this.items = (T[]) new Object[pointers.length];
     }
 
     @Override
     public void makeSet(T item) {
-        if (dict.containsKey(item)) {
+        if (!dict.putIfAbsent(item, index)) {
             throw new IllegalArgumentException();
         }
-        if (index == pointers.length - 1) {
-            int[] tempArray = new int[pointers.length * 2];
-            for (int i = 0; i < pointers.length; i++) {
-                tempArray[i] = pointers[i];
-            }
-            pointers = tempArray;
+        if (index == pointers.length) {
+            pointers = Arrays.copyOf(pointers, pointers.length * 2);
+            next = Arrays.copyOf(next, pointers.length);
+            items = Arrays.copyOf(items, pointers.length);
         }
         pointers[index] = -1;
-        dict.put(item, index);
+        next[index] = index;
+        items[index] = item;
         index++;
+        numSets++;
     }
 
-    @Override
-    public int findSet(T item) {
-        if (!dict.containsKey(item)) {
+    /**
+     * Returns the number of items added with makeSet.
+     */
+    public int size() {
+        return index;
+    }
+
+    public int numSets() {
+        return numSets;
+    }
+
+    public T itemOf(int id) {
+        checkId(id);
+        return items[id];
+    }
+
+    /**
+     * Returns the id makeSet gave the item.
+     */
+    public int idOf(T item) {
+        int id = dict.getOrDefault(item, -1);
+        if (id < 0) {
             throw new IllegalArgumentException();
         }
-        IList<Integer> list = new DoubleLinkedList<>();
+        return id;
+    }
 
-        int i = dict.get(item);
+    @Override
+    public int findSet(T item) {
+        return find(idOf(item));
+    }
 
-        while (pointers[i] >= 0) {
-            list.add(i);
-            i = pointers[i];
-        }
-        if (!list.isEmpty()) {
-            compression(list, i);
-        }
-        return i;
+    public int findSetById(int id) {
+        checkId(id);
+        return find(id);
     }
 
-    private void compression(IList<Integer> list, int root) {
-        for (int i : list) {
-            pointers[i] = root;
+    private int find(int id) {
+        while (pointers[id] >= 0) {
+            int parent = pointers[id];
+            int grandparent = pointers[parent];
+            if (grandparent < 0) {
+                return parent;
+            }
+            pointers[id] = grandparent;
+            id = grandparent;
         }
+        return id;
     }
 
     @Override
     public void union(T item1, T item2) {
-        if (!dict.containsKey(item1) || !dict.containsKey(item2)) {
-            throw new IllegalArgumentException();
-        }
+        link(find(idOf(item1)), find(idOf(item2)));
+    }
 
-        int root1 = findSet(item1);
-        int root2 = findSet(item2);
+    /**
+     * Joins the sets holding the two ids. Returns true if they were separate.
+     */
+    public boolean unionIds(int id1, int id2) {
+        checkId(id1);
+        checkId(id2);
+        return link(find(id1), find(id2));
+    }
 
+    private boolean link(int root1, int root2) {
         if (root1 == root2) {
-            return;
+            return false;
+        }
+        // sizes are stored negated, so the larger set has the smaller value
+        if (pointers[root1] > pointers[root2]) {
+            int temp = root1;
+            root1 = root2;
+            root2 = temp;
+        }
+        pointers[root1] += pointers[root2];
+        pointers[root2] = root1;
+        int temp = next[root1];
+        next[root1] = next[root2];
+        next[root2] = temp;
+        numSets--;
+        return true;
+    }
+
+    public int setSize(T item) {
+        return -pointers[find(idOf(item))];
+    }
+
+    public int setSizeById(int id) {
+        checkId(id);
+        return -pointers[find(id)];
+    }
+
+    /**
+     * Returns every item in the same set as the given id, starting with it.
+     * This takes time proportional to the size of that set only.
+     */
+    public IList<T> membersById(int id) {
+        checkId(id);
+        IList<T> output = new DoubleLinkedList<>();
+        int current = id;
+        do {
+            output.add(items[current]);
+            current = next[current];
+        } while (current != id);
+        return output;
+    }
+
+    public IList<T> members(T item) {
+        return membersById(idOf(item));
+    }
+
+    /**
+     * Numbers the sets 0 to numSets() - 1 and returns the number of each id's
+     * set, indexed by id. Sets are numbered in order of their lowest id.
+     */
+    public int[] components() {
+        int[] labels = new int[index];
+        int[] rootLabels = new int[index];
+        Arrays.fill(rootLabels, -1);
+        int count = 0;
+        for (int id = 0; id < index; id++) {
+            int root = find(id);
+            if (rootLabels[root] < 0) {
+                rootLabels[root] = count;
+                count++;
+            }
+            labels[id] = rootLabels[root];
         }
+        return labels;
+    }
 
-        if (pointers[root1] == pointers[root2]) {
-            pointers[root1] = pointers[root1] - 1;
-            pointers[root2] = root1;
-        } else if (pointers[root1] < pointers[root2]) {
-            pointers[root2] = root1;
-        } else {
-            pointers[root1] = root2;
+    private void checkId(int id) {
+        if (id < 0 || id >= index) {
+            throw new IllegalArgumentException();
         }
     }
 }
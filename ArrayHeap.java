@@ -1,23 +1,42 @@
 package datastructures.concrete;
 
-import datastructures.concrete.dictionaries.ChainedHashDictionary;
-import datastructures.interfaces.IDictionary;
+import datastructures.concrete.dictionaries.ObjectIntDictionary;
+import datastructures.interfaces.IList;
 import datastructures.interfaces.IPriorityQueue;
 import misc.exceptions.EmptyContainerException;
 import misc.exceptions.InvalidElementException;
 
 
 public class ArrayHeap<T extends Comparable<T>> implements IPriorityQueue<T> {
-    private static final int NUM_CHILDREN = 4;
+    private static final int DEFAULT_NUM_CHILDREN = 4;
 
+    // number of children is 2, 4 or 8, so index arithmetic is done with shifts
+    private final int shift;
     private T[] heap;
     private int size;
-    private IDictionary<T, Integer> map;
+    private ObjectIntDictionary<T> map;
 
     public ArrayHeap() {
+        this(DEFAULT_NUM_CHILDREN);
+    }
+
+    public ArrayHeap(int numChildren) {
+        if (numChildren != 2 && numChildren != 4 && numChildren != 8) {
+            throw new IllegalArgumentException();
+        }
+        this.shift = Integer.numberOfTrailingZeros(numChildren);
         this.size = 0;
         this.heap = makeArrayOfT(10);
-        this.map = new ChainedHashDictionary();
+        this.map = new ObjectIntDictionary<>();
+    }
+
+    public ArrayHeap(IList<T> items) {
+        this(items, DEFAULT_NUM_CHILDREN);
+    }
+
+    public ArrayHeap(IList<T> items, int numChildren) {
+        this(numChildren);
+        addAll(items);
     }
 
     @SuppressWarnings("unchecked")
@@ -25,83 +44,91 @@ public class ArrayHeap<T extends Comparable<T>> implements IPriorityQueue<T> {
         return (T[]) (new Comparable[arraySize]);
     }
 
-    private void percolateUp(int index) {
-        while (index > 0 && heap[index / NUM_CHILDREN] != null && heap[index / 4].compareTo(heap[index]) > 0) {
-            swap(index, index / NUM_CHILDREN);
-            map.put(heap[index], index);
-            map.put(heap[index / NUM_CHILDREN], index / NUM_CHILDREN);
-            percolateUp(index / NUM_CHILDREN);
-        }
+    private int parent(int index) {
+        return (index - 1) >> shift;
     }
 
-    private void percolateDown(int index) {
-        boolean needToPercolate = true;
-        if (size == 1) {
-            return;
-        }
-        if (heap[index * NUM_CHILDREN + 1] == null) {
-            return;
-        }
-        T smallestChild = heap[index];
-        int smallestIndex = 0;
-        for (int i = 1; i <= NUM_CHILDREN; i++) {
-            if (NUM_CHILDREN * index + i < size) {
-                if (heap[NUM_CHILDREN * index + i].compareTo(smallestChild) < 0) {
-                    smallestChild = heap[NUM_CHILDREN * index + i];
-                    smallestIndex = NUM_CHILDREN * index + i;
-                }
+    private int firstChild(int index) {
+        return (index << shift) + 1;
+    }
+
+    // Moves item up from index, shifting larger parents down into the hole
+    // instead of swapping, and records only the final position of each item.
+    private void percolateUp(int index, T item) {
+        while (index > 0) {
+            int parentIndex = parent(index);
+            T parentItem = heap[parentIndex];
+            if (parentItem.compareTo(item) <= 0) {
+                break;
             }
+            heap[index] = parentItem;
+            map.put(parentItem, index);
+            index = parentIndex;
         }
-        swap(index, smallestIndex);
-        map.put(heap[index], index);
-        map.put(heap[smallestIndex], smallestIndex);
+        heap[index] = item;
+        map.put(item, index);
+    }
 
-        index = smallestIndex;
-        for (int i = 1; i <= NUM_CHILDREN; i++) {
-            if (NUM_CHILDREN * index + i < size) {
-                if (heap[NUM_CHILDREN * index + i].compareTo(smallestChild) < 0) {
-                    needToPercolate = true;
-                    break;
+    private void percolateDown(int index, T item) {
+        while (true) {
+            int child = firstChild(index);
+            if (child >= size) {
+                break;
+            }
+            int lastChild = Math.min(child + (1 << shift), size);
+            int smallestIndex = child;
+            T smallestChild = heap[child];
+            for (int i = child + 1; i < lastChild; i++) {
+                if (heap[i].compareTo(smallestChild) < 0) {
+                    smallestChild = heap[i];
+                    smallestIndex = i;
                 }
             }
-            needToPercolate = false;
-        }
-        if (smallestIndex * NUM_CHILDREN + 1 <= size && needToPercolate) {
-            percolateDown(smallestIndex);
+            if (smallestChild.compareTo(item) >= 0) {
+                break;
+            }
+            heap[index] = smallestChild;
+            map.put(smallestChild, index);
+            index = smallestIndex;
         }
+        heap[index] = item;
+        map.put(item, index);
     }
 
-    private void percolate(int index) {
-        if (index == 0) {
-            percolateDown(index);
+    private void percolate(int index, T item) {
+        if (index > 0 && item.compareTo(heap[parent(index)]) < 0) {
+            percolateUp(index, item);
         } else {
-            int parentIndex = index / 2;
-            if (heap[index].compareTo(heap[parentIndex]) < 0) {
-                percolateUp(index);
-            } else if (heap[index].compareTo(heap[parentIndex]) > 0) {
-                percolateDown(index);
-            }
+            percolateDown(index, item);
         }
     }
 
-    private void swap(int a, int b) {
-        T temp = heap[a];
-        heap[a] = heap[b];
-        heap[b] = temp;
+    private void ensureCapacity(int capacity) {
+        if (capacity > heap.length) {
+            T[] tempArray = makeArrayOfT(Math.max(capacity, heap.length * 2));
+            System.arraycopy(heap, 0, tempArray, 0, size);
+            heap = tempArray;
+        }
+    }
 
+    // Removes the item at index by filling the hole with the last item.
+    private void removeAt(int index) {
+        size--;
+        T last = heap[size];
+        heap[size] = null;
+        if (index != size) {
+            percolate(index, last);
+        }
     }
 
     @Override
     public T removeMin() {
-        if (heap.length == 0 || size == 0) {
+        if (size == 0) {
             throw new EmptyContainerException();
         }
         T itemToReturn = heap[0];
-        map.remove(heap[0]);
-        heap[0] = heap[size - 1];
-        heap[size - 1] = null;
-        size--;
-        percolateDown(0);
+        map.remove(itemToReturn);
+        removeAt(0);
         return itemToReturn;
     }
 
@@ -121,18 +148,51 @@ public class ArrayHeap<T extends Comparable<T>> implements IPriorityQueue<T> {
         if (map.containsKey(item)) {
             throw new InvalidElementException();
         }
-        if (size + 1 > heap.length) {
-            T[] tempArray = makeArrayOfT(heap.length * 2);
-            for (int i = 0; i < heap.length; i++) {
-                tempArray[i] = heap[i];
-            }
-            heap = tempArray;
+        ensureCapacity(size + 1);
+        size++;
+        percolateUp(size - 1, item);
+    }
+
+    /**
+     * Adds every item in the list. If the heap at least doubles, the whole
+     * array is rebuilt bottom-up in O(n) instead of percolating each item.
+     * Throws before changing the heap if any item is null or already present
+     * (in the heap or earlier in the list).
+     */
+    public void addAll(IList<T> items) {
+        if (items == null) {
+            throw new IllegalArgumentException();
         }
+        int count = items.size();
+        ensureCapacity(size + count);
+        map.ensureCapacity(size + count);
         int index = size;
-        size++;
-        heap[index] = item;
-        map.put(item, index);
-        percolateUp(index);
+        for (T item : items) {
+            if (item == null || map.containsKey(item)) {
+                for (int i = size; i < index; i++) {
+                    map.remove(heap[i]);
+                    heap[i] = null;
+                }
+                if (item == null) {
+                    throw new IllegalArgumentException();
+                }
+                throw new InvalidElementException();
+            }
+            heap[index] = item;
+            map.put(item, index);
+            index++;
+        }
+        if (count >= size) {
+            size = index;
+            for (int i = parent(size - 1); i >= 0; i--) {
+                percolateDown(i, heap[i]);
+            }
+        } else {
+            while (size < index) {
+                size++;
+                percolateUp(size - 1, heap[size - 1]);
+            }
+        }
     }
 
     @Override
@@ -140,52 +200,31 @@ public class ArrayHeap<T extends Comparable<T>> implements IPriorityQueue<T> {
         if (item == null) {
             throw new IllegalArgumentException();
         }
-        if (map.containsKey(item)) {
-            return true;
-        }
-        return false;
+        return map.containsKey(item);
     }
 
     @Override
     public void remove(T item) {
-        int index = 0;
         if (item == null) {
             throw new IllegalArgumentException();
         }
         if (!map.containsKey(item)) {
             throw new InvalidElementException();
         }
-
-        index = map.remove(item);
-
-        if (index == size - 1) {
-            heap[index] = null;
-            size--;
-        } else {
-            swap(index, size - 1);
-            map.put(heap[index], index);
-            heap[size-1] = null;
-            size--;
-            percolate(index);
-        }
-
+        removeAt(map.remove(item));
     }
 
 
     @Override
     public void replace(T oldItem, T newItem) {
-        int index = 0;
         if (newItem == null) {
             throw new IllegalArgumentException();
         }
         if (!map.containsKey(oldItem) || map.containsKey(newItem)) {
             throw new InvalidElementException();
         }
-
-        index = map.remove(oldItem);
-        heap[index] = newItem;
-        map.put(newItem, index);
-        percolate(index);
+        int index = map.remove(oldItem);
+        percolate(index, newItem);
     }
 
 
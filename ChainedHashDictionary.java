@@ -6,143 +6,210 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    // a chain longer than this is converted to a SortedArrayDictionary
+    private static final int TREEIFY_THRESHOLD = 8;
+    // buckets migrated per operation while an incremental rehash is running
+    private static final int REHASH_STEP = 4;
+
     private final double lambda;
-    private IDictionary<K, V>[] chains;
+    private final boolean treeifyBuckets;
+    private final boolean incrementalRehash;
+    private HashBucket<K, V>[] chains;
     private int size;
-    private int tableSize;
+    private int mask;
+    // while rehashing, chains is drained bucket by bucket into rehashChains;
+    // a key lives in chains if its bucket there is non-null, else in rehashChains
+    private HashBucket<K, V>[] rehashChains;
+    private int rehashIndex;
 
     public ChainedHashDictionary() {
-        this.size = 0;
-        this.tableSize = 10;
-        this.chains = makeArrayOfChains(tableSize);
-        this.lambda = 0.5;
+        this(0.5);
     }
 
     public ChainedHashDictionary(double lambda) {
+        this(lambda, false);
+    }
+
+    public ChainedHashDictionary(double lambda, boolean treeifyBuckets) {
+        this(lambda, treeifyBuckets, false);
+    }
+
+    public ChainedHashDictionary(double lambda, boolean treeifyBuckets, boolean incrementalRehash) {
+        this(0, lambda, treeifyBuckets, incrementalRehash);
+    }
+
+    public ChainedHashDictionary(int expectedSize, double lambda) {
+        this(expectedSize, lambda, false, false);
+    }
+
+    public ChainedHashDictionary(int expectedSize, double lambda, boolean treeifyBuckets, boolean incrementalRehash) {
+        if (lambda <= 0 || expectedSize < 0) {
+            throw new IllegalArgumentException();
+        }
+        int capacity = Math.max(DEFAULT_CAPACITY, Hashing.tableSizeFor(expectedSize, lambda));
         this.lambda = lambda;
+        this.treeifyBuckets = treeifyBuckets;
+        this.incrementalRehash = incrementalRehash;
+        this.rehashChains = null;
+        this.rehashIndex = 0;
         this.size = 0;
-        this.tableSize = 10;
-        this.chains = makeArrayOfChains(tableSize);
-
+        this.chains = makeArrayOfChains(capacity);
+        this.mask = capacity - 1;
     }
 
     @SuppressWarnings("unchecked")
-    private IDictionary<K, V>[] makeArrayOfChains(int arraySize) {
-        return (IDictionary<K, V>[]) new IDictionary[arraySize];
+    private HashBucket<K, V>[] makeArrayOfChains(int arraySize) {
+        return (HashBucket<K, V>[]) new HashBucket[arraySize];
+    }
+
+    private HashBucket<K, V> chainFor(int hash) {
+        HashBucket<K, V> chain = chains[hash & mask];
+        if (chain == null && rehashChains != null) {
+            chain = rehashChains[hash & (rehashChains.length - 1)];
+        }
+        return chain;
     }
 
     @Override
     public V get(K key) {
-        int keyHash;
-        if (key == null) {
-            keyHash = 0;
-        } else {
-            keyHash = key.hashCode();
+        if (rehashChains != null) {
+            rehashStep();
         }
-        if (keyHash < 0) {
-            keyHash = -keyHash;
-        }
-        int modSize = keyHash % tableSize;
-        if (chains[modSize] == null) {
+        int hash = Hashing.spread(key);
+        HashBucket<K, V> chain = chainFor(hash);
+        if (chain == null) {
             throw new NoSuchKeyException();
         }
-        IDictionary<K, V> dict = chains[modSize];
-        return dict.get(key);
+        return chain.get(key, hash);
     }
 
     @Override
     public void put(K key, V value) {
-        int keyHash;
-        if (size/tableSize >= lambda) {
-            tableSize = tableSize * 2 + 1;
-            size = 0;
-            IDictionary<K, V>[] newChains = makeArrayOfChains(tableSize);
+        if (rehashChains != null) {
+            rehashStep();
+        }
+        int hash = Hashing.spread(key);
+        boolean added;
+        if (rehashChains != null && chains[hash & mask] == null) {
+            added = addToChain(rehashChains, hash & (rehashChains.length - 1), key, hash, value);
+        } else {
+            added = addToChain(chains, hash & mask, key, hash, value);
+        }
+        if (added) {
+            size++;
+            if (rehashChains == null && size > lambda * chains.length) {
+                startRehash(chains.length * 2);
+            }
+        }
+    }
+
+    // Returns true if the key was not already present in the chain.
+    private boolean addToChain(HashBucket<K, V>[] table, int index, K key, int hash, V value) {
+        HashBucket<K, V> chain = table[index];
+        if (chain == null) {
+            chain = new ArrayDictionary<>();
+            table[index] = chain;
+        }
+        if (!chain.put(key, hash, value)) {
+            return false;
+        }
+        if (treeifyBuckets && chain.size() > TREEIFY_THRESHOLD && chain instanceof ArrayDictionary) {
+            table[index] = treeify(chain);
+        }
+        return true;
+    }
+
+    private HashBucket<K, V> treeify(HashBucket<K, V> chain) {
+        HashBucket<K, V> tree = new SortedArrayDictionary<>(chain.size() * 2);
+        for (int slot = 0; slot < chain.size(); slot++) {
+            tree.put(chain.keyAt(slot), chain.hashAt(slot), chain.valueAt(slot));
+        }
+        return tree;
+    }
+
+    private void startRehash(int newSize) {
+        rehashChains = makeArrayOfChains(newSize);
+        rehashIndex = 0;
+        if (!incrementalRehash) {
             for (int i = 0; i < chains.length; i++) {
-                if (chains[i] != null) {
-                    for (KVPair<K, V> pair : chains[i]) {
-                        K newKey = pair.getKey();
-                        V newValue = pair.getValue();
-                        keyHash = newKey.hashCode();
-                        if (keyHash < 0) {
-                            keyHash *= -1;
-                        }
-                        int modSize = keyHash % tableSize;
-                        if (newChains[modSize] == null) {
-                            newChains[modSize] = new ArrayDictionary<>();
-                        }
-                        newChains[modSize].put(newKey, newValue);
-                        size++;
-                    }
-                }
+                migrateBucket(i);
             }
-            chains = newChains;
+            finishRehash();
         }
-        if (key == null) {
-            keyHash = 0;
-        } else {
-            keyHash = key.hashCode();
+    }
+
+    // Moves at most REHASH_STEP non-empty buckets, giving up early after a long
+    // run of empty ones so a single call stays bounded.
+    private void rehashStep() {
+        int moved = 0;
+        int emptyVisits = REHASH_STEP * 10;
+        while (rehashIndex < chains.length && moved < REHASH_STEP && emptyVisits > 0) {
+            if (chains[rehashIndex] != null) {
+                migrateBucket(rehashIndex);
+                moved++;
+            } else {
+                emptyVisits--;
+            }
+            rehashIndex++;
         }
-        if (keyHash < 0) {
-            keyHash *= -1;
+        if (rehashIndex == chains.length) {
+            finishRehash();
         }
-        int modSize = keyHash % tableSize;
-        if (chains[modSize] == null) {
-            chains[modSize] = new ArrayDictionary<>();
+    }
+
+    private void migrateBucket(int index) {
+        HashBucket<K, V> chain = chains[index];
+        if (chain == null) {
+            return;
         }
-        if (chains[modSize].containsKey(key)) {
-            chains[modSize].put(key, value);
-        } else {
-            chains[modSize].put(key, value);
-            size++;
+        int newMask = rehashChains.length - 1;
+        for (int slot = 0; slot < chain.size(); slot++) {
+            int hash = chain.hashAt(slot);
+            addToChain(rehashChains, hash & newMask, chain.keyAt(slot), hash, chain.valueAt(slot));
         }
+        chains[index] = null;
+    }
+
+    private void finishRehash() {
+        chains = rehashChains;
+        mask = chains.length - 1;
+        rehashChains = null;
+        rehashIndex = 0;
     }
 
     @Override
     public V remove(K key) {
-        int keyHash;
-        if (key == null) {
-            keyHash = 0;
-        } else {
-            keyHash = key.hashCode();
+        if (rehashChains != null) {
+            rehashStep();
         }
-        if (keyHash < 0) {
-            keyHash = -keyHash;
+        int hash = Hashing.spread(key);
+        HashBucket<K, V>[] table = chains;
+        int index = hash & mask;
+        if (table[index] == null && rehashChains != null) {
+            table = rehashChains;
+            index = hash & (rehashChains.length - 1);
         }
-        int modSize = keyHash % tableSize;
-        if (chains[modSize] == null) {
+        HashBucket<K, V> chain = table[index];
+        if (chain == null) {
             throw new NoSuchKeyException();
         }
-        IDictionary<K, V> newDict = chains[modSize];
-        if (newDict.containsKey(key)) {
-            V valueToReturn = newDict.get(key);
-            newDict.remove(key);
-            chains[modSize] = newDict;
-            size--;
-            return valueToReturn;
+        V valueToReturn = chain.remove(key, hash);
+        if (chain.isEmpty()) {
+            table[index] = null;
         }
-        throw new NoSuchKeyException();
+        size--;
+        return valueToReturn;
     }
 
     @Override
     public boolean containsKey(K key) {
-        int keyHash;
-        if (key == null) {
-            keyHash = 0;
-        } else {
-            keyHash = key.hashCode();
-        }
-        if (keyHash < 0) {
-            keyHash = -keyHash;
+        if (rehashChains != null) {
+            rehashStep();
         }
-        int modSize = keyHash % tableSize;
-        if (chains[modSize] == null) {
-            return false;
-        }
-        IDictionary<K, V> newDict = chains[modSize];
-        if (newDict.containsKey(key)) {
-            return true;
-        }
-        return false;
+        int hash = Hashing.spread(key);
+        HashBucket<K, V> chain = chainFor(hash);
+        return chain != null && chain.containsKey(key, hash);
     }
 
     @Override
@@ -152,55 +219,53 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
 
     @Override
     public Iterator<KVPair<K, V>> iterator() {
-        // Note: you do not need to change this method
-        return new ChainedIterator<>(this.chains);
+        return new ChainedIterator();
     }
 
-    private static class ChainedIterator<K, V> implements Iterator<KVPair<K, V>> {
-        private IDictionary<K, V>[] chains;
-        int size;
-        int i;
-        Iterator<KVPair<K, V>> itr;
+    // Walks the table in groups keyed by old bucket index. When a rehash is in
+    // progress, old bucket g is migrated before its group is visited, and can
+    // only ever land in new buckets g and g + oldLength, so lookups that move
+    // other buckets while iterating never cause entries to be skipped or repeated.
+    private class ChainedIterator implements Iterator<KVPair<K, V>> {
+        private final HashBucket<K, V>[] source;
+        private final HashBucket<K, V>[] target;
+        private final int groups;
+        private int group;
+        private int half;
+        private Iterator<KVPair<K, V>> itr;
 
-        public ChainedIterator(IDictionary<K, V>[] chains) {
-            this.chains = chains;
-            this.size = chains.length;
-            this.i = 0;
+        public ChainedIterator() {
+            this.source = rehashChains == null ? null : chains;
+            this.target = rehashChains == null ? chains : rehashChains;
+            this.groups = chains.length;
+            this.group = 0;
+            this.half = 0;
             this.itr = null;
-
-            for (int j = 0; j < size - 1; j++) {
-                if (chains[j] != null) {
-                    i = j;
-                    itr = chains[i].iterator();
-                    break;
-                }
-            }
         }
 
         @Override
         public boolean hasNext() {
-            if (itr == null) {
-                return false;
-            }
-            if (itr.hasNext()) {
-                return true;
-            }
-            for (int x = i + 1; x < size; x++) {
-                if (chains[x] != null && chains[x].size() != 0) {
-                    i = x;
-                    itr = chains[i].iterator();
-                    return true;
+            while (itr == null || !itr.hasNext()) {
+                if (group >= groups) {
+                    return false;
+                }
+                if (half == 0 && source != null && source[group] != null) {
+                    migrateBucket(group);
+                }
+                HashBucket<K, V> chain = target[group + half * groups];
+                itr = chain == null ? null : chain.iterator();
+                if (source != null && half == 0) {
+                    half = 1;
+                } else {
+                    half = 0;
+                    group++;
                 }
             }
-
-            return false;
+            return true;
         }
 
         @Override
         public KVPair<K, V> next() {
-            if (itr == null) {
-                throw new NoSuchElementException();
-            }
             if (hasNext()) {
                 return itr.next();
             }
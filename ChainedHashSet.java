@@ -15,6 +15,10 @@ public class ChainedHashSet<T> implements ISet<T> {
         this.map = new ChainedHashDictionary<>();
     }
 
+    public ChainedHashSet(int expectedSize) {
+        this.map = new ChainedHashDictionary<>(expectedSize, 0.5);
+    }
+
     @Override
     public void add(T item) {
         map.put(item, true);
@@ -0,0 +1,280 @@
+package datastructures.concrete;
+
+import datastructures.interfaces.IList;
+import misc.exceptions.EmptyContainerException;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Unrolled linked list: a doubly linked list of array chunks holding up to
+ * CHUNK_SIZE items each.
+ *
+ * A DoubleLinkedList pays for a 32-byte node per item and scatters its items
+ * over the heap. Here a full chunk costs about 4 to 8 bytes per item beyond
+ * the item itself, and iteration reads each chunk's array sequentially. add
+ * and remove work at the back in O(1) amortized time. insert and delete
+ * shift at most one chunk's worth of items. A full chunk splits in two, and
+ * a chunk that falls below a quarter full is merged into its successor when
+ * they fit together.
+ *
+ * Indexed access first walks to the right chunk, from whichever of the front,
+ * the back or the finger (the last chunk reached, with the index of its first
+ * item) is nearest.
+ */
+public class ChunkedList<T> implements IList<T> {
+    private static final int CHUNK_SIZE = 64;
+
+    private Chunk<T> front;
+    private Chunk<T> back;
+    private int size;
+    private Chunk<T> finger;
+    private int fingerStart;
+
+    public ChunkedList() {
+        this.front = null;
+        this.back = null;
+        this.size = 0;
+        this.finger = null;
+        this.fingerStart = 0;
+    }
+
+    @Override
+    public void add(T item) {
+        if (back == null || back.count == CHUNK_SIZE) {
+            Chunk<T> chunk = new Chunk<>();
+            linkAfter(back, chunk);
+        }
+        back.items[back.count] = item;
+        back.count++;
+        size++;
+    }
+
+    @Override
+    public T remove() {
+        if (size == 0) {
+            throw new EmptyContainerException();
+        }
+        back.count--;
+        T item = back.items[back.count];
+        back.items[back.count] = null;
+        size--;
+        if (back.count == 0) {
+            unlink(back);
+        }
+        return item;
+    }
+
+    @Override
+    public T get(int index) {
+        checkIndex(index);
+        Chunk<T> chunk = chunkAt(index);
+        return chunk.items[index - fingerStart];
+    }
+
+    @Override
+    public void set(int index, T item) {
+        checkIndex(index);
+        Chunk<T> chunk = chunkAt(index);
+        chunk.items[index - fingerStart] = item;
+    }
+
+    @Override
+    public void insert(int index, T item) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (index == size) {
+            add(item);
+            return;
+        }
+        Chunk<T> chunk = chunkAt(index);
+        int offset = index - fingerStart;
+        if (chunk.count == CHUNK_SIZE) {
+            Chunk<T> upper = new Chunk<>();
+            int half = CHUNK_SIZE / 2;
+            System.arraycopy(chunk.items, half, upper.items, 0, CHUNK_SIZE - half);
+            Arrays.fill(chunk.items, half, CHUNK_SIZE, null);
+            upper.count = CHUNK_SIZE - half;
+            chunk.count = half;
+            linkAfter(chunk, upper);
+            if (offset > half) {
+                chunk = upper;
+                offset -= half;
+                // chunkAt left the finger on the lower half
+                fingerStart += half;
+                finger = upper;
+            }
+        }
+        System.arraycopy(chunk.items, offset, chunk.items, offset + 1, chunk.count - offset);
+        chunk.items[offset] = item;
+        chunk.count++;
+        size++;
+    }
+
+    @Override
+    public T delete(int index) {
+        checkIndex(index);
+        Chunk<T> chunk = chunkAt(index);
+        int offset = index - fingerStart;
+        T item = chunk.items[offset];
+        System.arraycopy(chunk.items, offset + 1, chunk.items, offset, chunk.count - offset - 1);
+        chunk.count--;
+        chunk.items[chunk.count] = null;
+        size--;
+        if (chunk.count == 0) {
+            unlink(chunk);
+        } else if (chunk.count < CHUNK_SIZE / 4 && chunk.next != null
+                && chunk.count + chunk.next.count <= CHUNK_SIZE) {
+            Chunk<T> next = chunk.next;
+            System.arraycopy(next.items, 0, chunk.items, chunk.count, next.count);
+            chunk.count += next.count;
+            unlink(next);
+        }
+        return item;
+    }
+
+    @Override
+    public int indexOf(T item) {
+        int base = 0;
+        for (Chunk<T> chunk = front; chunk != null; chunk = chunk.next) {
+            for (int i = 0; i < chunk.count; i++) {
+                if (item == null ? chunk.items[i] == null : item.equals(chunk.items[i])) {
+                    return base + i;
+                }
+            }
+            base += chunk.count;
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(T other) {
+        return indexOf(other) >= 0;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new ChunkedListIterator<>(front);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    // Returns the chunk holding index and leaves the finger on it, so the
+    // caller finds the item at index - fingerStart.
+    private Chunk<T> chunkAt(int index) {
+        Chunk<T> chunk;
+        int start;
+        if (finger != null && index >= fingerStart && index < fingerStart + finger.count) {
+            return finger;
+        }
+        if (finger != null && Math.abs(index - fingerStart) < Math.min(index, size - index)) {
+            chunk = finger;
+            start = fingerStart;
+        } else if (index < size - index) {
+            chunk = front;
+            start = 0;
+        } else {
+            chunk = back;
+            start = size - back.count;
+        }
+        while (index >= start + chunk.count) {
+            start += chunk.count;
+            chunk = chunk.next;
+        }
+        while (index < start) {
+            chunk = chunk.prev;
+            start -= chunk.count;
+        }
+        finger = chunk;
+        fingerStart = start;
+        return chunk;
+    }
+
+    private void linkAfter(Chunk<T> previous, Chunk<T> chunk) {
+        chunk.prev = previous;
+        if (previous == null) {
+            chunk.next = front;
+            front = chunk;
+        } else {
+            chunk.next = previous.next;
+            previous.next = chunk;
+        }
+        if (chunk.next == null) {
+            back = chunk;
+        } else {
+            chunk.next.prev = chunk;
+        }
+    }
+
+    // Unlinks a chunk whose items have already been removed from size or
+    // moved elsewhere. Chunks before the finger never change here, so the
+    // finger stays valid unless it is the chunk being removed.
+    private void unlink(Chunk<T> chunk) {
+        if (chunk.prev == null) {
+            front = chunk.next;
+        } else {
+            chunk.prev.next = chunk.next;
+        }
+        if (chunk.next == null) {
+            back = chunk.prev;
+        } else {
+            chunk.next.prev = chunk.prev;
+        }
+        if (finger == chunk) {
+            finger = null;
+        }
+    }
+
+    private static class Chunk<T> {
+        private final T[] items;
+        private int count;
+        private Chunk<T> prev;
+        private Chunk<T> next;
+
+        @SuppressWarnings("unchecked")
+        public Chunk() {
+            this.items = (T[]) new Object[CHUNK_SIZE];
+            this.count = 0;
+        }
+    }
+
+    private static class ChunkedListIterator<T> implements Iterator<T> {
+        private Chunk<T> chunk;
+        private int offset;
+
+        public ChunkedListIterator(Chunk<T> chunk) {
+            this.chunk = chunk;
+            this.offset = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return chunk != null;
+        }
+
+        @Override
+        public T next() {
+            if (chunk == null) {
+                throw new NoSuchElementException();
+            }
+            T item = chunk.items[offset];
+            offset++;
+            if (offset == chunk.count) {
+                chunk = chunk.next;
+                offset = 0;
+            }
+            return item;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package datastructures.concrete;
+
+import datastructures.concrete.dictionaries.ObjectIntDictionary;
+import datastructures.interfaces.IEdge;
+import datastructures.interfaces.IList;
+import datastructures.interfaces.ISet;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Immutable graph in compressed sparse row form.
+ *
+ * Vertices are numbered 0 to numVertices() - 1 in input order and edges 0 to
+ * numEdges() - 1. The neighbors of vertex v are targets[offsets[v]] up to
+ * targets[offsets[v + 1]], with the matching edge ids in edgeIds. An edge
+ * appears once in each endpoint's range, or once in total for a self-loop.
+ * Weights and endpoints are kept per edge in primitive arrays, so traversals
+ * never touch the vertex or edge objects.
+ */
+public class CompactGraph<V, E extends IEdge<V> & Comparable<E>> {
+    // loop iterations a fork-join task runs before splitting
+    private static final int PARALLEL_GRAIN = 4096;
+
+    private final V[] vertices;
+    private final E[] edges;
+    private final ObjectIntDictionary<V> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] edgeIds;
+    private final double[] weights;
+    private final int[] sources;
+    private final int[] destinations;
+
+    @SuppressWarnings("unchecked")
+    public CompactGraph(IList<V> vertices, IList<E> edges) {
+        if (vertices == null || edges == null) {
+            throw new IllegalArgumentException();
+        }
+        int n = vertices.size();
+        int m = edges.size();
+        this.vertices = (V[]) new Object[n];
+        this.edges = (E[]) new IEdge[m];
+        this.ids = new ObjectIntDictionary<>(n);
+        this.weights = new double[m];
+        this.sources = new int[m];
+        this.destinations = new int[m];
+        this.offsets = new int[n + 1];
+
+        int id = 0;
+        for (V vertex : vertices) {
+            if (vertex == null || ids.containsKey(vertex)) {
+                throw new IllegalArgumentException();
+            }
+            ids.put(vertex, id);
+            this.vertices[id] = vertex;
+            id++;
+        }
+
+        int slots = 0;
+        int e = 0;
+        for (E edge : edges) {
+            if (edge == null || !Graph.validWeight(edge.getWeight())) {
+                throw new IllegalArgumentException();
+            }
+            int u = ids.getOrDefault(edge.getVertex1(), -1);
+            int v = ids.getOrDefault(edge.getVertex2(), -1);
+            if (u < 0 || v < 0) {
+                throw new IllegalArgumentException();
+            }
+            this.edges[e] = edge;
+            // adding 0.0 turns -0.0 into 0.0
+            weights[e] = edge.getWeight() + 0.0;
+            sources[e] = u;
+            destinations[e] = v;
+            offsets[u + 1]++;
+            slots++;
+            if (u != v) {
+                offsets[v + 1]++;
+                slots++;
+            }
+            e++;
+        }
+
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        this.targets = new int[slots];
+        this.edgeIds = new int[slots];
+        int[] next = new int[n];
+        System.arraycopy(offsets, 0, next, 0, n);
+        for (e = 0; e < m; e++) {
+            int u = sources[e];
+            int v = destinations[e];
+            targets[next[u]] = v;
+            edgeIds[next[u]] = e;
+            next[u]++;
+            if (u != v) {
+                targets[next[v]] = u;
+                edgeIds[next[v]] = e;
+                next[v]++;
+            }
+        }
+    }
+
+    public int numVertices() {
+        return vertices.length;
+    }
+
+    public int numEdges() {
+        return edges.length;
+    }
+
+    public int idOf(V vertex) {
+        int id = ids.getOrDefault(vertex, -1);
+        if (id < 0) {
+            throw new IllegalArgumentException();
+        }
+        return id;
+    }
+
+    public boolean containsVertex(V vertex) {
+        return ids.containsKey(vertex);
+    }
+
+    public V vertexAt(int id) {
+        return vertices[id];
+    }
+
+    public E edgeAt(int edge) {
+        return edges[edge];
+    }
+
+    public int degree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    int firstSlot(int id) {
+        return offsets[id];
+    }
+
+    int endSlot(int id) {
+        return offsets[id + 1];
+    }
+
+    int target(int slot) {
+        return targets[slot];
+    }
+
+    int edgeId(int slot) {
+        return edgeIds[slot];
+    }
+
+    double weight(int edge) {
+        return weights[edge];
+    }
+
+    int source(int edge) {
+        return sources[edge];
+    }
+
+    int destination(int edge) {
+        return destinations[edge];
+    }
+
+    /**
+     * Returns the edge ids sorted by weight, breaking ties by id.
+     */
+    int[] edgesByWeight() {
+        int[] order = new int[edges.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        sortByWeight(order, 0, order.length);
+        return order;
+    }
+
+    private boolean lighter(int a, int b) {
+        return weights[a] < weights[b] || (weights[a] == weights[b] && a < b);
+    }
+
+    // Quicksort with median-of-three pivots; recursing only into the smaller
+    // half keeps the stack depth logarithmic.
+    void sortByWeight(int[] order, int from, int to) {
+        while (to - from > 16) {
+            int mid = (from + to) >>> 1;
+            int a = order[from];
+            int b = order[mid];
+            int c = order[to - 1];
+            int pivot = lighter(a, b) ? (lighter(b, c) ? b : (lighter(a, c) ? c : a))
+                    : (lighter(a, c) ? a : (lighter(b, c) ? c : b));
+            int i = from;
+            int j = to - 1;
+            while (i <= j) {
+                while (lighter(order[i], pivot)) {
+                    i++;
+                }
+                while (lighter(pivot, order[j])) {
+                    j--;
+                }
+                if (i <= j) {
+                    int temp = order[i];
+                    order[i] = order[j];
+                    order[j] = temp;
+                    i++;
+                    j--;
+                }
+            }
+            if (j - from < to - i) {
+                sortByWeight(order, from, j + 1);
+                from = i;
+            } else {
+                sortByWeight(order, i, to);
+                to = j + 1;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            int item = order[i];
+            int j = i - 1;
+            while (j >= from && lighter(item, order[j])) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = item;
+        }
+    }
+
+    public ISet<E> findMinimumSpanningTree() {
+        int n = vertices.length;
+        int[] parents = new int[n];
+        int[] sizes = new int[n];
+        for (int i = 0; i < n; i++) {
+            parents[i] = i;
+            sizes[i] = 1;
+        }
+        ISet<E> result = new ChainedHashSet<>();
+        int components = n;
+        for (int edge : edgesByWeight()) {
+            if (components == 1) {
+                break;
+            }
+            int a = find(parents, sources[edge]);
+            int b = find(parents, destinations[edge]);
+            if (a != b) {
+                if (sizes[a] < sizes[b]) {
+                    int temp = a;
+                    a = b;
+                    b = temp;
+                }
+                parents[b] = a;
+                sizes[a] += sizes[b];
+                components--;
+                result.add(edges[edge]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the same tree as findMinimumSpanningTree() using parallel Boruvka
+     * rounds on a fork-join pool of the given parallelism.
+     *
+     * Each round, every component picks its lightest outgoing edge by a CAS
+     * loop, the picked edges are merged through a ConcurrentIntDisjointSet, and
+     * edges inside a single component are filtered out. Ties are broken by
+     * edge id, so the picked edges never form a cycle and the result matches
+     * the sequential version exactly.
+     */
+    public ISet<E> findMinimumSpanningTree(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException();
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return boruvka(pool, parallelism);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private ISet<E> boruvka(ForkJoinPool pool, int parallelism) {
+        int n = vertices.length;
+        ConcurrentIntDisjointSet components = new ConcurrentIntDisjointSet(n);
+        AtomicIntegerArray lightest = new AtomicIntegerArray(n);
+        boolean[] inTree = new boolean[edges.length];
+
+        int[] live = new int[edges.length];
+        for (int i = 0; i < live.length; i++) {
+            live[i] = i;
+        }
+        int liveCount = live.length;
+        while (liveCount > 0) {
+            int[] current = live;
+            Parallel.forRange(pool, 0, n, PARALLEL_GRAIN, v -> lightest.set(v, -1));
+            Parallel.forRange(pool, 0, liveCount, PARALLEL_GRAIN, i -> {
+                int edge = current[i];
+                int a = components.find(sources[edge]);
+                int b = components.find(destinations[edge]);
+                if (a != b) {
+                    offerLightest(lightest, a, edge);
+                    offerLightest(lightest, b, edge);
+                }
+            });
+            Parallel.forRange(pool, 0, n, PARALLEL_GRAIN, v -> {
+                int edge = lightest.get(v);
+                if (edge >= 0 && components.union(sources[edge], destinations[edge])) {
+                    inTree[edge] = true;
+                }
+            });
+
+            live = new int[liveCount];
+            liveCount = crossingEdges(pool, parallelism, components, current, liveCount, live);
+        }
+
+        ISet<E> result = new ChainedHashSet<>(n);
+        for (int edge = 0; edge < inTree.length; edge++) {
+            if (inTree[edge]) {
+                result.add(edges[edge]);
+            }
+        }
+        return result;
+    }
+
+    private void offerLightest(AtomicIntegerArray lightest, int root, int edge) {
+        while (true) {
+            int best = lightest.get(root);
+            if (best >= 0 && !lighter(edge, best)) {
+                return;
+            }
+            if (lightest.compareAndSet(root, best, edge)) {
+                return;
+            }
+        }
+    }
+
+    // Copies the edges whose endpoints are still in different components from
+    // in into out, keeping their order, and returns how many were copied.
+    // Chunks are counted in parallel, offset by a prefix sum, then written in
+    // parallel.
+    private int crossingEdges(ForkJoinPool pool, int parallelism, ConcurrentIntDisjointSet components,
+                              int[] in, int count, int[] out) {
+        int chunkSize = Math.max(PARALLEL_GRAIN, (count + 4 * parallelism - 1) / (4 * parallelism));
+        int numChunks = (count + chunkSize - 1) / chunkSize;
+        int[] starts = new int[numChunks + 1];
+        Parallel.forRange(pool, 0, numChunks, 1, chunk -> {
+            int kept = 0;
+            int end = Math.min(count, (chunk + 1) * chunkSize);
+            for (int i = chunk * chunkSize; i < end; i++) {
+                if (!components.sameSet(sources[in[i]], destinations[in[i]])) {
+                    kept++;
+                }
+            }
+            starts[chunk + 1] = kept;
+        });
+        for (int chunk = 0; chunk < numChunks; chunk++) {
+            starts[chunk + 1] += starts[chunk];
+        }
+        Parallel.forRange(pool, 0, numChunks, 1, chunk -> {
+            int next = starts[chunk];
+            int end = Math.min(count, (chunk + 1) * chunkSize);
+            for (int i = chunk * chunkSize; i < end; i++) {
+                if (!components.sameSet(sources[in[i]], destinations[in[i]])) {
+                    out[next] = in[i];
+                    next++;
+                }
+            }
+        });
+        return starts[numChunks];
+    }
+
+    private static int find(int[] parents, int x) {
+        while (parents[x] != x) {
+            parents[x] = parents[parents[x]];
+            x = parents[x];
+        }
+        return x;
+    }
+
+    public IList<E> findShortestPathBetween(V start, V end) {
+        return new ShortestPathFinder<>(this).dijkstra(start, end).getPath();
+    }
+}
@@ -0,0 +1,584 @@
+package datastructures.concrete.dictionaries;
+
+import datastructures.interfaces.IDictionary;
+import misc.exceptions.NoSuchKeyException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Thread-safe chained hash dictionary.
+ *
+ * Reads never lock: they walk immutable-key nodes whose value and next fields
+ * are volatile. Writers CAS a node into an empty bucket, or otherwise lock the
+ * first node of the bucket. When the table grows, buckets are handed out to
+ * threads in strides, and any thread that runs into a moved bucket helps finish
+ * the transfer before retrying in the new table.
+ *
+ * Iterators are weakly consistent: they never throw because of concurrent
+ * updates, but may or may not reflect them.
+ */
+public class ConcurrentChainedHashDictionary<K, V> implements IDictionary<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int MIN_TRANSFER_STRIDE = 16;
+    // hash values of special nodes; real nodes always have non-negative hashes
+    private static final int MOVED = -1;
+    private static final int RESERVED = -2;
+    private static final Object NULL_KEY = new Object();
+
+    private final double lambda;
+    private volatile AtomicReferenceArray<Node<K, V>> table;
+    private volatile Resize<K, V> resize;
+    private volatile int threshold;
+    private final LongAdder count;
+
+    public ConcurrentChainedHashDictionary() {
+        this(0.75);
+    }
+
+    public ConcurrentChainedHashDictionary(double lambda) {
+        this(DEFAULT_CAPACITY, lambda);
+    }
+
+    public ConcurrentChainedHashDictionary(int expectedSize, double lambda) {
+        if (lambda <= 0 || expectedSize < 0) {
+            throw new IllegalArgumentException();
+        }
+        int capacity = Math.max(DEFAULT_CAPACITY, Hashing.tableSizeFor(expectedSize, lambda));
+        this.lambda = lambda;
+        this.table = new AtomicReferenceArray<>(capacity);
+        this.resize = null;
+        this.threshold = (int) (capacity * lambda);
+        this.count = new LongAdder();
+    }
+
+    private static int hash(Object key) {
+        return Hashing.spread(key) & 0x7fffffff;
+    }
+
+    private static Object mask(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> K unmask(Object key) {
+        return key == NULL_KEY ? null : (K) key;
+    }
+
+    private Node<K, V> findNode(Object key, int hash) {
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            Node<K, V> e = tab.get(hash & (tab.length() - 1));
+            if (e == null) {
+                return null;
+            }
+            if (e.hash == MOVED) {
+                tab = ((ForwardingNode<K, V>) e).resize.newTable;
+                continue;
+            }
+            for (; e != null; e = e.next) {
+                if (e.hash == hash && (e.key == key || e.key.equals(key))) {
+                    return e;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        Node<K, V> node = findNode(mask(key), hash(key));
+        if (node == null) {
+            throw new NoSuchKeyException();
+        }
+        return node.value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return findNode(mask(key), hash(key)) != null;
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        Node<K, V> node = findNode(mask(key), hash(key));
+        return node == null ? defaultValue : node.value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        putVal(key, value, false);
+    }
+
+    /**
+     * Stores the value only if the key is absent. Returns the value that was
+     * already present, or null if the new value was stored.
+     */
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    private V putVal(K key, V value, boolean onlyIfAbsent) {
+        Object k = mask(key);
+        int hash = hash(key);
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            int i = hash & (tab.length() - 1);
+            Node<K, V> f = tab.get(i);
+            if (f == null) {
+                if (tab.compareAndSet(i, null, new Node<>(hash, k, value, null))) {
+                    addCount(1);
+                    return null;
+                }
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer((ForwardingNode<K, V>) f);
+            } else {
+                synchronized (f) {
+                    if (tab.get(i) == f && f.hash != RESERVED) {
+                        Node<K, V> e = f;
+                        while (true) {
+                            if (e.hash == hash && (e.key == k || e.key.equals(k))) {
+                                V old = e.value;
+                                if (!onlyIfAbsent) {
+                                    e.value = value;
+                                }
+                                return old;
+                            }
+                            if (e.next == null) {
+                                e.next = new Node<>(hash, k, value, null);
+                                break;
+                            }
+                            e = e.next;
+                        }
+                    } else {
+                        continue;
+                    }
+                }
+                addCount(1);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns the value for key, computing and storing it first if the key is
+     * absent. The function runs at most once per call, while the bucket is
+     * locked, so it should be short and must not touch this dictionary.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Object k = mask(key);
+        int hash = hash(key);
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            int i = hash & (tab.length() - 1);
+            Node<K, V> f = tab.get(i);
+            if (f == null) {
+                Node<K, V> reservation = new Node<>(RESERVED, null, null, null);
+                synchronized (reservation) {
+                    if (tab.compareAndSet(i, null, reservation)) {
+                        V value = null;
+                        try {
+                            value = mappingFunction.apply(key);
+                        } finally {
+                            tab.set(i, value == null ? null : new Node<>(hash, k, value, null));
+                        }
+                        if (value != null) {
+                            addCount(1);
+                        }
+                        return value;
+                    }
+                }
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer((ForwardingNode<K, V>) f);
+            } else {
+                Node<K, V> found = findInBucket(f, k, hash);
+                if (found != null) {
+                    return found.value;
+                }
+                V value;
+                synchronized (f) {
+                    if (tab.get(i) != f || f.hash == RESERVED) {
+                        continue;
+                    }
+                    Node<K, V> e = f;
+                    while (true) {
+                        if (e.hash == hash && (e.key == k || e.key.equals(k))) {
+                            return e.value;
+                        }
+                        if (e.next == null) {
+                            break;
+                        }
+                        e = e.next;
+                    }
+                    value = mappingFunction.apply(key);
+                    if (value == null) {
+                        return null;
+                    }
+                    e.next = new Node<>(hash, k, value, null);
+                }
+                addCount(1);
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Stores value if key is absent, otherwise replaces the current value with
+     * remappingFunction(current, value), removing the key if that is null.
+     * Returns the new value, or null if the key was removed.
+     */
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (value == null || remappingFunction == null) {
+            throw new IllegalArgumentException();
+        }
+        Object k = mask(key);
+        int hash = hash(key);
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            int i = hash & (tab.length() - 1);
+            Node<K, V> f = tab.get(i);
+            if (f == null) {
+                if (tab.compareAndSet(i, null, new Node<>(hash, k, value, null))) {
+                    addCount(1);
+                    return value;
+                }
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer((ForwardingNode<K, V>) f);
+            } else {
+                int delta = 0;
+                V result;
+                synchronized (f) {
+                    if (tab.get(i) != f || f.hash == RESERVED) {
+                        continue;
+                    }
+                    Node<K, V> pred = null;
+                    Node<K, V> e = f;
+                    while (e != null && !(e.hash == hash && (e.key == k || e.key.equals(k)))) {
+                        pred = e;
+                        e = e.next;
+                    }
+                    if (e == null) {
+                        pred.next = new Node<>(hash, k, value, null);
+                        result = value;
+                        delta = 1;
+                    } else {
+                        result = remappingFunction.apply(e.value, value);
+                        if (result != null) {
+                            e.value = result;
+                        } else {
+                            unlink(tab, i, pred, e);
+                            delta = -1;
+                        }
+                    }
+                }
+                if (delta != 0) {
+                    addCount(delta);
+                }
+                return result;
+            }
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        Node<K, V> removed = removeNode(key, null, false);
+        if (removed == null) {
+            throw new NoSuchKeyException();
+        }
+        return removed.value;
+    }
+
+    /**
+     * Removes key only if it is currently mapped to a value equal to value.
+     * Returns true if the entry was removed.
+     */
+    public boolean remove(K key, V value) {
+        return removeNode(key, value, true) != null;
+    }
+
+    private Node<K, V> removeNode(K key, V expected, boolean conditional) {
+        Object k = mask(key);
+        int hash = hash(key);
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            int i = hash & (tab.length() - 1);
+            Node<K, V> f = tab.get(i);
+            if (f == null) {
+                return null;
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer((ForwardingNode<K, V>) f);
+            } else {
+                Node<K, V> e;
+                synchronized (f) {
+                    if (tab.get(i) != f || f.hash == RESERVED) {
+                        continue;
+                    }
+                    Node<K, V> pred = null;
+                    e = f;
+                    while (e != null && !(e.hash == hash && (e.key == k || e.key.equals(k)))) {
+                        pred = e;
+                        e = e.next;
+                    }
+                    if (e == null || (conditional && !(e.value == expected
+                            || (expected != null && expected.equals(e.value))))) {
+                        return null;
+                    }
+                    unlink(tab, i, pred, e);
+                }
+                addCount(-1);
+                return e;
+            }
+        }
+    }
+
+    private static <K, V> void unlink(AtomicReferenceArray<Node<K, V>> tab, int i, Node<K, V> pred, Node<K, V> e) {
+        if (pred == null) {
+            tab.set(i, e.next);
+        } else {
+            pred.next = e.next;
+        }
+    }
+
+    private static <K, V> Node<K, V> findInBucket(Node<K, V> e, Object key, int hash) {
+        for (; e != null; e = e.next) {
+            if (e.hash == hash && (e.key == key || e.key.equals(key))) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        long n = count.sum();
+        if (n < 0) {
+            return 0;
+        }
+        return n > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) n;
+    }
+
+    private void addCount(int delta) {
+        count.add(delta);
+        if (delta > 0) {
+            AtomicReferenceArray<Node<K, V>> tab = table;
+            if (count.sum() > threshold && tab.length() < MAX_CAPACITY) {
+                startResize(tab);
+            }
+        }
+    }
+
+    private void startResize(AtomicReferenceArray<Node<K, V>> tab) {
+        Resize<K, V> r;
+        boolean initiated = false;
+        synchronized (this) {
+            r = resize;
+            if (r == null) {
+                if (table != tab || count.sum() <= threshold) {
+                    return;
+                }
+                r = new Resize<>(tab, new AtomicReferenceArray<>(tab.length() * 2));
+                resize = r;
+                initiated = true;
+            }
+        }
+        if (initiated) {
+            transfer(r);
+        } else {
+            helpTransfer(r);
+        }
+    }
+
+    private AtomicReferenceArray<Node<K, V>> helpTransfer(ForwardingNode<K, V> f) {
+        helpTransfer(f.resize);
+        return f.resize.newTable;
+    }
+
+    private void helpTransfer(Resize<K, V> r) {
+        int workers;
+        do {
+            workers = r.workers.get();
+            if (workers <= 0) {
+                return;
+            }
+        } while (!r.workers.compareAndSet(workers, workers + 1));
+        transfer(r);
+    }
+
+    // Claims strides of old buckets until none are left. The caller must already
+    // be counted in r.workers; the last worker out installs the new table.
+    private void transfer(Resize<K, V> r) {
+        AtomicReferenceArray<Node<K, V>> oldTable = r.oldTable;
+        AtomicReferenceArray<Node<K, V>> newTable = r.newTable;
+        int n = oldTable.length();
+        int stride = Math.max(MIN_TRANSFER_STRIDE, n / (4 * Runtime.getRuntime().availableProcessors()));
+        while (true) {
+            int hi = r.transferIndex.get();
+            if (hi <= 0) {
+                break;
+            }
+            int lo = Math.max(0, hi - stride);
+            if (!r.transferIndex.compareAndSet(hi, lo)) {
+                continue;
+            }
+            for (int i = hi - 1; i >= lo; i--) {
+                while (!transferBucket(r, oldTable, newTable, i, n)) {
+                    Thread.yield();
+                }
+            }
+        }
+        if (r.workers.decrementAndGet() == 0) {
+            threshold = (int) (newTable.length() * lambda);
+            table = newTable;
+            resize = null;
+        }
+    }
+
+    // Copies bucket i into buckets i and i + n of the new table, leaving the old
+    // chain untouched for concurrent readers, then forwards the old bucket.
+    private boolean transferBucket(Resize<K, V> r, AtomicReferenceArray<Node<K, V>> oldTable,
+                                   AtomicReferenceArray<Node<K, V>> newTable, int i, int n) {
+        Node<K, V> f = oldTable.get(i);
+        if (f == null) {
+            return oldTable.compareAndSet(i, null, r.forwardingNode);
+        }
+        if (f.hash == MOVED) {
+            return true;
+        }
+        synchronized (f) {
+            if (oldTable.get(i) != f || f.hash == RESERVED) {
+                return false;
+            }
+            Node<K, V> low = null;
+            Node<K, V> high = null;
+            for (Node<K, V> e = f; e != null; e = e.next) {
+                if ((e.hash & n) == 0) {
+                    low = new Node<>(e.hash, e.key, e.value, low);
+                } else {
+                    high = new Node<>(e.hash, e.key, e.value, high);
+                }
+            }
+            newTable.set(i, low);
+            newTable.set(i + n, high);
+            oldTable.set(i, r.forwardingNode);
+        }
+        return true;
+    }
+
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new ConcurrentIterator<>(this.table);
+    }
+
+    private static class Node<K, V> {
+        final int hash;
+        final Object key;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(int hash, Object key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    private static class ForwardingNode<K, V> extends Node<K, V> {
+        final Resize<K, V> resize;
+
+        ForwardingNode(Resize<K, V> resize) {
+            super(MOVED, null, null, null);
+            this.resize = resize;
+        }
+    }
+
+    private static class Resize<K, V> {
+        final AtomicReferenceArray<Node<K, V>> oldTable;
+        final AtomicReferenceArray<Node<K, V>> newTable;
+        final ForwardingNode<K, V> forwardingNode;
+        // buckets below this index have not been claimed by any worker yet
+        final AtomicInteger transferIndex;
+        final AtomicInteger workers;
+
+        Resize(AtomicReferenceArray<Node<K, V>> oldTable, AtomicReferenceArray<Node<K, V>> newTable) {
+            this.oldTable = oldTable;
+            this.newTable = newTable;
+            this.forwardingNode = new ForwardingNode<>(this);
+            this.transferIndex = new AtomicInteger(oldTable.length());
+            this.workers = new AtomicInteger(1);
+        }
+    }
+
+    private static class ConcurrentIterator<K, V> implements Iterator<KVPair<K, V>> {
+        // pending (table, index) buckets, pushed when a forwarded bucket splits
+        private AtomicReferenceArray<Node<K, V>>[] tables;
+        private int[] indexes;
+        private int pending;
+        private final AtomicReferenceArray<Node<K, V>> root;
+        private int rootIndex;
+        private Node<K, V> current;
+
+        @SuppressWarnings("unchecked")
+        public ConcurrentIterator(AtomicReferenceArray<Node<K, V>> root) {
+            this.root = root;
+            this.rootIndex = 0;
+            this.tables = (AtomicReferenceArray<Node<K, V>>[]) new AtomicReferenceArray[8];
+            this.indexes = new int[8];
+            this.pending = 0;
+            this.current = null;
+        }
+
+        private void push(AtomicReferenceArray<Node<K, V>> tab, int index) {
+            if (pending == indexes.length) {
+                tables = java.util.Arrays.copyOf(tables, pending * 2);
+                indexes = java.util.Arrays.copyOf(indexes, pending * 2);
+            }
+            tables[pending] = tab;
+            indexes[pending] = index;
+            pending++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (current == null) {
+                AtomicReferenceArray<Node<K, V>> tab;
+                int i;
+                if (pending > 0) {
+                    pending--;
+                    tab = tables[pending];
+                    i = indexes[pending];
+                } else if (rootIndex < root.length()) {
+                    tab = root;
+                    i = rootIndex;
+                    rootIndex++;
+                } else {
+                    return false;
+                }
+                Node<K, V> head = tab.get(i);
+                if (head != null && head.hash == MOVED) {
+                    AtomicReferenceArray<Node<K, V>> next = ((ForwardingNode<K, V>) head).resize.newTable;
+                    push(next, i + tab.length());
+                    push(next, i);
+                } else if (head != null && head.hash != RESERVED) {
+                    current = head;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> node = current;
+            current = node.next;
+            return new KVPair<>(ConcurrentChainedHashDictionary.<K>unmask(node.key), node.value);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package datastructures.concrete;
+
+import datastructures.concrete.dictionaries.ConcurrentChainedHashDictionary;
+import datastructures.interfaces.IDisjointSet;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe union-find over arbitrary items. Any number of threads may call
+ * makeSet, findSet, union and sameSet at once.
+ *
+ * Items get dense ids from a concurrent map, and the sets themselves are kept
+ * in a lock-free ConcurrentIntDisjointSet, so find never blocks and union
+ * is a CAS loop. The number of items is fixed at construction. Callers that
+ * track ids from idOf can use findSetById and unionIds to skip the map.
+ *
+ * findSet returns the root at some moment during the call. A concurrent union
+ * can make it stale at once, so compare items with sameSet rather than by
+ * comparing two findSet results.
+ */
+public class ConcurrentDisjointSet<T> implements IDisjointSet<T> {
+    private final ConcurrentChainedHashDictionary<T, Integer> ids;
+    private final ConcurrentIntDisjointSet sets;
+    private final AtomicInteger nextId;
+
+    public ConcurrentDisjointSet(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.ids = new ConcurrentChainedHashDictionary<>(capacity, 0.75);
+        this.sets = new ConcurrentIntDisjointSet(capacity);
+        this.nextId = new AtomicInteger();
+    }
+
+    /**
+     * Adds the item as a set of its own. Throws IllegalStateException once
+     * capacity items have been added.
+     */
+    @Override
+    public void makeSet(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        int id = nextId.getAndIncrement();
+        if (id >= sets.size() || id < 0) {
+            nextId.getAndDecrement();
+            throw new IllegalStateException();
+        }
+        // a losing duplicate wastes its id, which stays a singleton forever
+        if (ids.putIfAbsent(item, id) != null) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    public int idOf(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        Integer id = ids.getOrDefault(item, null);
+        if (id == null) {
+            throw new IllegalArgumentException();
+        }
+        return id;
+    }
+
+    @Override
+    public int findSet(T item) {
+        return sets.find(idOf(item));
+    }
+
+    public int findSetById(int id) {
+        return sets.find(id);
+    }
+
+    @Override
+    public void union(T item1, T item2) {
+        sets.union(idOf(item1), idOf(item2));
+    }
+
+    /**
+     * Joins the sets holding the two ids. Returns true if this call joined
+     * them, so among threads racing to join the same two sets exactly one
+     * sees true.
+     */
+    public boolean unionIds(int id1, int id2) {
+        return sets.union(id1, id2);
+    }
+
+    public boolean sameSet(T item1, T item2) {
+        return sets.sameSet(idOf(item1), idOf(item2));
+    }
+}
@@ -0,0 +1,101 @@
+package datastructures.concrete;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free union-find over the ids 0 to size() - 1.
+ *
+ * Parents live in an AtomicIntegerArray. find compresses with path halving, and
+ * each halving step is a CAS that is simply skipped if another thread got there
+ * first, so find never waits. union links one root under the other with a
+ * single CAS and retries if either root changed in the meantime. Roots are
+ * linked in the order of a scrambled id, which acts like the random
+ * priorities of Jayanti and Tarjan's union-find: it keeps trees shallow even
+ * when ids arrive in order. Because it is a fixed total order, it also rules
+ * out cycles without any locks.
+ */
+public class ConcurrentIntDisjointSet {
+    private final AtomicIntegerArray parents;
+
+    public ConcurrentIntDisjointSet(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.parents = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parents.lazySet(i, i);
+        }
+    }
+
+    public int size() {
+        return parents.length();
+    }
+
+    public int find(int id) {
+        checkId(id);
+        int current = id;
+        int parent = parents.get(current);
+        while (parent != current) {
+            int grandparent = parents.get(parent);
+            if (grandparent != parent) {
+                parents.compareAndSet(current, parent, grandparent);
+            }
+            current = grandparent;
+            parent = parents.get(current);
+        }
+        return current;
+    }
+
+    /**
+     * Joins the sets holding a and b. Returns true if this call linked them,
+     * or false if they were already in the same set.
+     */
+    public boolean union(int a, int b) {
+        checkId(a);
+        checkId(b);
+        while (true) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return false;
+            }
+            if (Integer.compareUnsigned(priority(rootA), priority(rootB)) > 0) {
+                int temp = rootA;
+                rootA = rootB;
+                rootB = temp;
+            }
+            if (parents.compareAndSet(rootA, rootA, rootB)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean sameSet(int a, int b) {
+        checkId(a);
+        checkId(b);
+        while (true) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return true;
+            }
+            // rootA may have been linked after it was found; only a root that
+            // is still a root proves the sets were apart at some instant
+            if (parents.get(rootA) == rootA) {
+                return false;
+            }
+        }
+    }
+
+    // Multiplying by an odd constant is a bijection on ints, so distinct ids
+    // never tie.
+    private static int priority(int id) {
+        return id * 0x9E3779B9;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= parents.length()) {
+            throw new IllegalArgumentException();
+        }
+    }
+}
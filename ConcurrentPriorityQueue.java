@@ -0,0 +1,281 @@
+package datastructures.concrete;
+
+import datastructures.concrete.dictionaries.ConcurrentChainedHashDictionary;
+import datastructures.interfaces.IPriorityQueue;
+import misc.exceptions.EmptyContainerException;
+import misc.exceptions.InvalidElementException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe priority queue for many producers and consumers.
+ *
+ * STRICT ordering keeps every item in one lock-free skip list, so removeMin
+ * always returns a current minimum. RELAXED ordering spreads items over several
+ * ArrayHeaps, each behind its own lock. add picks a random heap, and removeMin
+ * takes the smaller top of two randomly chosen heaps. removeMin then usually
+ * returns one of the smallest few items rather than the exact minimum, but
+ * threads rarely contend for the same lock.
+ *
+ * contains, remove and replace go through a concurrent index from items to
+ * their entries. Under concurrent updates their answers may already be stale
+ * when they return.
+ */
+public class ConcurrentPriorityQueue<T extends Comparable<T>> implements IPriorityQueue<T> {
+    public enum Ordering {
+        STRICT,
+        RELAXED
+    }
+
+    // sub-heaps per available processor in RELAXED mode
+    private static final int QUEUES_PER_THREAD = 2;
+    private static final int REMOVE_ATTEMPTS = 32;
+
+    private final Ordering ordering;
+    private final ConcurrentChainedHashDictionary<T, Entry<T>> entries;
+    private final AtomicLong sequence;
+    private final AtomicInteger size;
+    private final ConcurrentSkipListSet<Entry<T>> skipList;
+    private final SubQueue<T>[] queues;
+
+    public ConcurrentPriorityQueue() {
+        this(Ordering.STRICT);
+    }
+
+    public ConcurrentPriorityQueue(Ordering ordering) {
+        this(ordering, QUEUES_PER_THREAD * Runtime.getRuntime().availableProcessors());
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentPriorityQueue(Ordering ordering, int numQueues) {
+        if (ordering == null || numQueues < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.ordering = ordering;
+        this.entries = new ConcurrentChainedHashDictionary<>();
+        this.sequence = new AtomicLong();
+        this.size = new AtomicInteger();
+        if (ordering == Ordering.STRICT) {
+            this.skipList = new ConcurrentSkipListSet<>();
+            this.queues = null;
+        } else {
+            this.skipList = null;
+            this.queues = (SubQueue<T>[]) new SubQueue[numQueues];
+            for (int i = 0; i < numQueues; i++) {
+                queues[i] = new SubQueue<>();
+            }
+        }
+    }
+
+    @Override
+    public void add(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        Entry<T> entry = new Entry<>(item, sequence.getAndIncrement());
+        if (entries.putIfAbsent(item, entry) != null) {
+            throw new InvalidElementException();
+        }
+        insert(entry);
+    }
+
+    private void insert(Entry<T> entry) {
+        if (ordering == Ordering.STRICT) {
+            skipList.add(entry);
+        } else {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (true) {
+                int index = random.nextInt(queues.length);
+                SubQueue<T> queue = queues[index];
+                if (queue.lock.tryLock()) {
+                    try {
+                        entry.queue = index;
+                        queue.heap.add(entry);
+                        queue.min = queue.heap.peekMin();
+                    } finally {
+                        queue.lock.unlock();
+                    }
+                    break;
+                }
+            }
+        }
+        size.incrementAndGet();
+    }
+
+    @Override
+    public T removeMin() {
+        Entry<T> entry = ordering == Ordering.STRICT ? pollStrict() : pollRelaxed();
+        if (entry == null) {
+            throw new EmptyContainerException();
+        }
+        size.decrementAndGet();
+        entries.remove(entry.item, entry);
+        return entry.item;
+    }
+
+    private Entry<T> pollStrict() {
+        return skipList.pollFirst();
+    }
+
+    private Entry<T> pollRelaxed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < REMOVE_ATTEMPTS && size.get() > 0; attempt++) {
+            SubQueue<T> a = queues[random.nextInt(queues.length)];
+            SubQueue<T> b = queues[random.nextInt(queues.length)];
+            Entry<T> minA = a.min;
+            Entry<T> minB = b.min;
+            SubQueue<T> queue = (minA == null || (minB != null && minB.compareTo(minA) < 0)) ? b : a;
+            if (queue.min != null && queue.lock.tryLock()) {
+                try {
+                    if (!queue.heap.isEmpty()) {
+                        return popLocked(queue);
+                    }
+                } finally {
+                    queue.lock.unlock();
+                }
+            }
+        }
+        // random probes keep missing; sweep every queue before reporting empty
+        for (SubQueue<T> queue : queues) {
+            queue.lock.lock();
+            try {
+                if (!queue.heap.isEmpty()) {
+                    return popLocked(queue);
+                }
+            } finally {
+                queue.lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    private Entry<T> popLocked(SubQueue<T> queue) {
+        Entry<T> entry = queue.heap.removeMin();
+        queue.min = queue.heap.isEmpty() ? null : queue.heap.peekMin();
+        return entry;
+    }
+
+    @Override
+    public T peekMin() {
+        if (ordering == Ordering.STRICT) {
+            try {
+                return skipList.first().item;
+            } catch (NoSuchElementException e) {
+                throw new EmptyContainerException();
+            }
+        }
+        Entry<T> best = null;
+        for (SubQueue<T> queue : queues) {
+            Entry<T> min = queue.min;
+            if (min != null && (best == null || min.compareTo(best) < 0)) {
+                best = min;
+            }
+        }
+        if (best == null) {
+            throw new EmptyContainerException();
+        }
+        return best.item;
+    }
+
+    @Override
+    public boolean contains(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        return entries.containsKey(item);
+    }
+
+    @Override
+    public void remove(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        Entry<T> entry = entries.getOrDefault(item, null);
+        if (entry == null || !unlink(entry)) {
+            throw new InvalidElementException();
+        }
+        size.decrementAndGet();
+        entries.remove(item, entry);
+    }
+
+    // Takes the entry out of its skip list or heap; false if another thread
+    // removed it first.
+    private boolean unlink(Entry<T> entry) {
+        if (ordering == Ordering.STRICT) {
+            return skipList.remove(entry);
+        }
+        int index = entry.queue;
+        if (index < 0) {
+            return false;
+        }
+        SubQueue<T> queue = queues[index];
+        queue.lock.lock();
+        try {
+            if (!queue.heap.contains(entry)) {
+                return false;
+            }
+            queue.heap.remove(entry);
+            queue.min = queue.heap.isEmpty() ? null : queue.heap.peekMin();
+            return true;
+        } finally {
+            queue.lock.unlock();
+        }
+    }
+
+    @Override
+    public void replace(T oldItem, T newItem) {
+        if (newItem == null) {
+            throw new IllegalArgumentException();
+        }
+        Entry<T> newEntry = new Entry<>(newItem, sequence.getAndIncrement());
+        if (entries.putIfAbsent(newItem, newEntry) != null) {
+            throw new InvalidElementException();
+        }
+        Entry<T> oldEntry = oldItem == null ? null : entries.getOrDefault(oldItem, null);
+        if (oldEntry == null || !unlink(oldEntry)) {
+            entries.remove(newItem, newEntry);
+            throw new InvalidElementException();
+        }
+        size.decrementAndGet();
+        entries.remove(oldItem, oldEntry);
+        insert(newEntry);
+    }
+
+    @Override
+    public int size() {
+        return Math.max(0, size.get());
+    }
+
+    private static class Entry<T extends Comparable<T>> implements Comparable<Entry<T>> {
+        private final T item;
+        // breaks ties between distinct items that compare as equal
+        private final long sequence;
+        private volatile int queue;
+
+        public Entry(T item, long sequence) {
+            this.item = item;
+            this.sequence = sequence;
+            this.queue = -1;
+        }
+
+        @Override
+        public int compareTo(Entry<T> other) {
+            int cmp = item.compareTo(other.item);
+            if (cmp != 0) {
+                return cmp;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static class SubQueue<T extends Comparable<T>> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayHeap<Entry<T>> heap = new ArrayHeap<>();
+        // top of heap, published for lock-free peeking
+        private volatile Entry<T> min = null;
+    }
+}
@@ -0,0 +1,714 @@
+package datastructures.concrete;
+
+import datastructures.interfaces.IEdge;
+import datastructures.interfaces.IList;
+import misc.exceptions.NoPathExistsException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Contraction hierarchy over a CompactGraph, for fast point-to-point shortest
+ * path queries.
+ *
+ * Preprocessing contracts the vertices one at a time, cheapest first. The
+ * cost of a vertex weighs the shortcuts its removal needs against its degree.
+ * It also counts how many of its neighbors are already gone and how deep in
+ * the hierarchy it would sit. Both of those spread contraction evenly over
+ * the graph. When a vertex is removed, a shortcut replaces each path between
+ * two of its neighbors through it, unless a bounded witness search finds a
+ * path at least as short that avoids it.
+ *
+ * A query runs Dijkstra from both ends, following only arcs toward vertices
+ * contracted later. It skips vertices that are provably reached more cheaply
+ * from above. Shortcuts remember the two arcs they replace, so paths are
+ * unpacked back into the graph's own edges.
+ *
+ * The hierarchy is a snapshot: changing the Graph it came from has no effect
+ * on it. save writes it to a file, and load reads it back for the same graph.
+ */
+public class ContractionHierarchy<V, E extends IEdge<V> & Comparable<E>> {
+    private static final int MAGIC = 0x43484958;
+    private static final int FORMAT_VERSION = 1;
+    // settled-vertex limits for witness searches; a search that gives up
+    // early only costs an unneeded shortcut, never a wrong answer
+    private static final int PRIORITY_SETTLE_LIMIT = 64;
+    private static final int CONTRACT_SETTLE_LIMIT = 512;
+
+    private final CompactGraph<V, E> graph;
+    private final int[] ranks;
+    private final int numArcs;
+    private final int[] arcFrom;
+    private final int[] arcTo;
+    private final double[] arcWeights;
+    // the original edge id, or -1 for a shortcut
+    private final int[] arcEdges;
+    // for a shortcut, the arcs it replaces: first touches arcFrom and second
+    // touches arcTo
+    private final int[] arcFirst;
+    private final int[] arcSecond;
+    // each vertex's arcs to higher ranked vertices, in CSR form
+    private final int[] upOffsets;
+    private final int[] upArcs;
+    // idle query scratch, at most one per processor; see acquireQuery
+    private final Query[] idleQueries;
+    private int numIdleQueries;
+
+    private ContractionHierarchy(CompactGraph<V, E> graph, int[] ranks, int numArcs, int[] arcFrom, int[] arcTo,
+                                 double[] arcWeights, int[] arcEdges, int[] arcFirst, int[] arcSecond) {
+        this.graph = graph;
+        this.ranks = ranks;
+        this.numArcs = numArcs;
+        this.arcFrom = arcFrom;
+        this.arcTo = arcTo;
+        this.arcWeights = arcWeights;
+        this.arcEdges = arcEdges;
+        this.arcFirst = arcFirst;
+        this.arcSecond = arcSecond;
+
+        int n = ranks.length;
+        this.upOffsets = new int[n + 1];
+        for (int arc = 0; arc < numArcs; arc++) {
+            upOffsets[lowerEnd(arc) + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            upOffsets[v + 1] += upOffsets[v];
+        }
+        this.upArcs = new int[numArcs];
+        int[] next = Arrays.copyOf(upOffsets, n);
+        for (int arc = 0; arc < numArcs; arc++) {
+            int v = lowerEnd(arc);
+            upArcs[next[v]] = arc;
+            next[v]++;
+        }
+        this.idleQueries = new Query[Runtime.getRuntime().availableProcessors()];
+        this.numIdleQueries = 0;
+    }
+
+    /**
+     * Runs the preprocessing. This takes far longer than a single query and
+     * is meant to be done once, offline.
+     */
+    public static <V, E extends IEdge<V> & Comparable<E>> ContractionHierarchy<V, E> build(CompactGraph<V, E> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        Contractor contractor = new Contractor(graph);
+        contractor.contractAll();
+        return new ContractionHierarchy<>(graph, contractor.ranks, contractor.from.size(), contractor.from.toArray(),
+                contractor.to.toArray(), contractor.weights.toArray(), contractor.edges.toArray(),
+                contractor.first.toArray(), contractor.second.toArray());
+    }
+
+    public CompactGraph<V, E> getGraph() {
+        return graph;
+    }
+
+    public int numShortcuts() {
+        int count = 0;
+        for (int arc = 0; arc < numArcs; arc++) {
+            if (arcEdges[arc] < 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public ShortestPath<E> findShortestPath(V start, V end) {
+        int source = graph.idOf(start);
+        int target = graph.idOf(end);
+        if (source == target) {
+            return new ShortestPath<>(new DoubleLinkedList<>(), 0.0);
+        }
+        Query query = acquireQuery();
+        try {
+            return search(query, source, target);
+        } finally {
+            releaseQuery(query);
+        }
+    }
+
+    // Query scratch holds O(V) arrays, so it is pooled by the hierarchy rather
+    // than kept per thread, where it would outlive the hierarchy.
+    private Query acquireQuery() {
+        synchronized (idleQueries) {
+            if (numIdleQueries > 0) {
+                numIdleQueries--;
+                Query query = idleQueries[numIdleQueries];
+                idleQueries[numIdleQueries] = null;
+                return query;
+            }
+        }
+        return new Query(ranks.length);
+    }
+
+    private void releaseQuery(Query query) {
+        synchronized (idleQueries) {
+            if (numIdleQueries < idleQueries.length) {
+                idleQueries[numIdleQueries] = query;
+                numIdleQueries++;
+            }
+        }
+    }
+
+    private ShortestPath<E> search(Query query, int source, int target) {
+        query.forward.reset();
+        query.backward.reset();
+        query.forward.label(source, 0.0, -1);
+        query.backward.label(target, 0.0, -1);
+        double best = Double.POSITIVE_INFINITY;
+        int meet = -1;
+
+        while (true) {
+            // a side can stop once nothing left in its queue can improve best
+            if (!query.forward.queue.isEmpty() && query.forward.queue.peekMinKey() >= best) {
+                query.forward.queue.clear();
+            }
+            if (!query.backward.queue.isEmpty() && query.backward.queue.peekMinKey() >= best) {
+                query.backward.queue.clear();
+            }
+            Search side;
+            if (query.forward.queue.isEmpty()) {
+                if (query.backward.queue.isEmpty()) {
+                    break;
+                }
+                side = query.backward;
+            } else if (query.backward.queue.isEmpty()) {
+                side = query.forward;
+            } else {
+                side = query.forward.queue.peekMinKey() <= query.backward.queue.peekMinKey()
+                        ? query.forward : query.backward;
+            }
+            Search other = side == query.forward ? query.backward : query.forward;
+
+            int u = side.queue.removeMin();
+            double cost = side.distances[u];
+            if (other.reached(u) && cost + other.distances[u] < best) {
+                best = cost + other.distances[u];
+                meet = u;
+            }
+            if (stalled(side, u, cost)) {
+                continue;
+            }
+            for (int i = upOffsets[u]; i < upOffsets[u + 1]; i++) {
+                int arc = upArcs[i];
+                side.relax(otherEnd(arc, u), cost + arcWeights[arc], arc);
+            }
+        }
+        if (meet < 0) {
+            throw new NoPathExistsException();
+        }
+
+        IList<E> path = new DoubleLinkedList<>();
+        IntList hops = query.hops;
+        hops.clear();
+        for (int current = meet; current != source; current = otherEnd(query.forward.parentArcs[current], current)) {
+            hops.addInt(query.forward.parentArcs[current]);
+        }
+        int current = source;
+        while (!hops.isEmpty()) {
+            int arc = hops.removeInt();
+            unpack(query, arc, current, path);
+            current = otherEnd(arc, current);
+        }
+        while (current != target) {
+            int arc = query.backward.parentArcs[current];
+            unpack(query, arc, current, path);
+            current = otherEnd(arc, current);
+        }
+        return new ShortestPath<>(path, best);
+    }
+
+    // Stall-on-demand: if a higher vertex this side has reached is closer to
+    // u than u's own label, then u is not on any shortest up path and its
+    // arcs need not be relaxed. The label is still correct as an upper bound,
+    // so u may still be a meeting point.
+    private boolean stalled(Search side, int u, double cost) {
+        for (int i = upOffsets[u]; i < upOffsets[u + 1]; i++) {
+            int arc = upArcs[i];
+            int x = otherEnd(arc, u);
+            if (side.reached(x) && side.distances[x] + arcWeights[arc] < cost) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Appends the original edges behind arc to path, walking from start.
+    private void unpack(Query query, int arc, int start, IList<E> path) {
+        IntList frames = query.frames;
+        frames.clear();
+        pushFrame(frames, arc, start);
+        while (!frames.isEmpty()) {
+            int from = frames.removeInt();
+            int current = frames.removeInt();
+            if (arcEdges[current] >= 0) {
+                path.add(graph.edgeAt(arcEdges[current]));
+                continue;
+            }
+            int first = arcFirst[current];
+            int second = arcSecond[current];
+            int middle = otherEnd(first, arcFrom[current]);
+            // push in reverse so the half touching from is expanded first
+            if (from == arcFrom[current]) {
+                pushFrame(frames, second, middle);
+                pushFrame(frames, first, from);
+            } else {
+                pushFrame(frames, first, middle);
+                pushFrame(frames, second, from);
+            }
+        }
+    }
+
+    // The unpack stack holds (arc, start) pairs, so start is popped first.
+    private static void pushFrame(IntList frames, int arc, int start) {
+        frames.addInt(arc);
+        frames.addInt(start);
+    }
+
+    private int otherEnd(int arc, int vertex) {
+        return arcFrom[arc] == vertex ? arcTo[arc] : arcFrom[arc];
+    }
+
+    private int lowerEnd(int arc) {
+        return ranks[arcFrom[arc]] < ranks[arcTo[arc]] ? arcFrom[arc] : arcTo[arc];
+    }
+
+    /**
+     * Writes the hierarchy to a file. The vertices and edges themselves are
+     * not stored, only their ids, so load needs the same CompactGraph.
+     */
+    public void save(Path path) {
+        if (path == null) {
+            throw new IllegalArgumentException();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(graph.numVertices());
+            out.writeInt(graph.numEdges());
+            out.writeInt(numArcs);
+            for (int rank : ranks) {
+                out.writeInt(rank);
+            }
+            for (int arc = 0; arc < numArcs; arc++) {
+                out.writeInt(arcFrom[arc]);
+                out.writeInt(arcTo[arc]);
+                out.writeDouble(arcWeights[arc]);
+                out.writeInt(arcEdges[arc]);
+                out.writeInt(arcFirst[arc]);
+                out.writeInt(arcSecond[arc]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a hierarchy written by save. Throws IllegalArgumentException if
+     * the file is malformed or was built from a different graph.
+     */
+    public static <V, E extends IEdge<V> & Comparable<E>> ContractionHierarchy<V, E> load(
+            CompactGraph<V, E> graph, Path path) {
+        if (graph == null || path == null) {
+            throw new IllegalArgumentException();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IllegalArgumentException();
+            }
+            int n = in.readInt();
+            int m = in.readInt();
+            int numArcs = in.readInt();
+            if (n != graph.numVertices() || m != graph.numEdges() || numArcs < 0) {
+                throw new IllegalArgumentException();
+            }
+            int[] ranks = new int[n];
+            boolean[] seenRanks = new boolean[n];
+            for (int v = 0; v < n; v++) {
+                ranks[v] = in.readInt();
+                if (ranks[v] < 0 || ranks[v] >= n || seenRanks[ranks[v]]) {
+                    throw new IllegalArgumentException();
+                }
+                seenRanks[ranks[v]] = true;
+            }
+            int[] from = new int[numArcs];
+            int[] to = new int[numArcs];
+            double[] weights = new double[numArcs];
+            int[] edges = new int[numArcs];
+            int[] first = new int[numArcs];
+            int[] second = new int[numArcs];
+            for (int arc = 0; arc < numArcs; arc++) {
+                from[arc] = in.readInt();
+                to[arc] = in.readInt();
+                weights[arc] = in.readDouble();
+                edges[arc] = in.readInt();
+                first[arc] = in.readInt();
+                second[arc] = in.readInt();
+                checkArc(graph, arc, from, to, weights, edges, first, second);
+            }
+            return new ContractionHierarchy<>(graph, ranks, numArcs, from, to, weights, edges, first, second);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Shortcuts may only refer to arcs before them, which also rules out
+    // cycles when unpacking.
+    private static void checkArc(CompactGraph<?, ?> graph, int arc, int[] from, int[] to, double[] weights,
+                                 int[] edges, int[] first, int[] second) {
+        int n = graph.numVertices();
+        if (from[arc] < 0 || from[arc] >= n || to[arc] < 0 || to[arc] >= n || from[arc] == to[arc]) {
+            throw new IllegalArgumentException();
+        }
+        int edge = edges[arc];
+        if (edge >= 0) {
+            if (edge >= graph.numEdges()) {
+                throw new IllegalArgumentException();
+            }
+            boolean sameEnds = (graph.source(edge) == from[arc] && graph.destination(edge) == to[arc])
+                    || (graph.source(edge) == to[arc] && graph.destination(edge) == from[arc]);
+            if (!sameEnds || graph.weight(edge) != weights[arc]) {
+                throw new IllegalArgumentException();
+            }
+        } else {
+            if (first[arc] < 0 || first[arc] >= arc || second[arc] < 0 || second[arc] >= arc) {
+                throw new IllegalArgumentException();
+            }
+            int middle = from[first[arc]] == from[arc] ? to[first[arc]] : from[first[arc]];
+            boolean firstTouches = from[first[arc]] == from[arc] || to[first[arc]] == from[arc];
+            boolean secondJoins = (from[second[arc]] == middle && to[second[arc]] == to[arc])
+                    || (to[second[arc]] == middle && from[second[arc]] == to[arc]);
+            // build() adds the halves in this order, so the sum is exact
+            boolean sameWeight = weights[arc] == weights[first[arc]] + weights[second[arc]];
+            if (!firstTouches || !secondJoins || !sameWeight) {
+                throw new IllegalArgumentException();
+            }
+        }
+    }
+
+    // Labels for one direction of a query, invalidated by bumping a stamp.
+    private static final class Search {
+        private final double[] distances;
+        private final int[] parentArcs;
+        private final int[] stamps;
+        private final IndexMinPQ queue;
+        private int stamp;
+
+        public Search(int n) {
+            this.distances = new double[n];
+            this.parentArcs = new int[n];
+            this.stamps = new int[n];
+            this.queue = new IndexMinPQ(n);
+            this.stamp = 0;
+        }
+
+        public void reset() {
+            queue.clear();
+            stamp++;
+            if (stamp == 0) {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+        }
+
+        public boolean reached(int v) {
+            return stamps[v] == stamp;
+        }
+
+        public void label(int v, double distance, int arc) {
+            stamps[v] = stamp;
+            distances[v] = distance;
+            parentArcs[v] = arc;
+            queue.add(v, distance);
+        }
+
+        public void relax(int v, double distance, int arc) {
+            if (!reached(v)) {
+                label(v, distance, arc);
+            } else if (distance < distances[v] && queue.contains(v)) {
+                distances[v] = distance;
+                parentArcs[v] = arc;
+                queue.decreaseKey(v, distance);
+            }
+        }
+    }
+
+    // Scratch space for one query and its path unpacking.
+    private static final class Query {
+        private final Search forward;
+        private final Search backward;
+        private final IntList hops;
+        private final IntList frames;
+
+        public Query(int n) {
+            this.forward = new Search(n);
+            this.backward = new Search(n);
+            this.hops = new IntList(16);
+            this.frames = new IntList(32);
+        }
+    }
+
+    // Mutable state for preprocessing. Arcs between contracted vertices stay
+    // in the adjacency lists and are skipped, which is cheaper than removing
+    // them.
+    private static final class Contractor {
+        private final CompactGraph<?, ?> graph;
+        private final int n;
+        private final int[][] adjacency;
+        private final int[] degrees;
+        private final boolean[] contracted;
+        private final int[] deletedNeighbors;
+        private final int[] levels;
+        private final int[] ranks;
+
+        private final IntList from;
+        private final IntList to;
+        private final DoubleList weights;
+        private final IntList edges;
+        private final IntList first;
+        private final IntList second;
+
+        // witness search scratch
+        private final double[] distances;
+        private final int[] stamps;
+        private final IndexMinPQ queue;
+        private int stamp;
+
+        // the current vertex's remaining neighbors, each through its
+        // lightest arc
+        private final int[] neighborSlots;
+        private final int[] neighborStamps;
+        private int[] neighbors;
+        private double[] neighborWeights;
+        private int[] neighborArcs;
+        private int neighborStamp;
+
+        public Contractor(CompactGraph<?, ?> graph) {
+            this.graph = graph;
+            this.n = graph.numVertices();
+            this.adjacency = new int[n][];
+            this.degrees = new int[n];
+            this.contracted = new boolean[n];
+            this.deletedNeighbors = new int[n];
+            this.levels = new int[n];
+            this.ranks = new int[n];
+
+            int m = graph.numEdges();
+            int capacity = Math.max(16, m);
+            this.from = new IntList(capacity);
+            this.to = new IntList(capacity);
+            this.weights = new DoubleList(capacity);
+            this.edges = new IntList(capacity);
+            this.first = new IntList(capacity);
+            this.second = new IntList(capacity);
+            for (int v = 0; v < n; v++) {
+                adjacency[v] = new int[Math.max(4, graph.degree(v))];
+            }
+            for (int edge = 0; edge < m; edge++) {
+                if (graph.source(edge) != graph.destination(edge)) {
+                    addArc(graph.source(edge), graph.destination(edge), graph.weight(edge), edge, -1, -1);
+                }
+            }
+
+            this.distances = new double[n];
+            this.stamps = new int[n];
+            this.queue = new IndexMinPQ(n);
+            this.stamp = 0;
+            this.neighborSlots = new int[n];
+            this.neighborStamps = new int[n];
+            this.neighbors = new int[16];
+            this.neighborWeights = new double[16];
+            this.neighborArcs = new int[16];
+            this.neighborStamp = 0;
+        }
+
+        public void contractAll() {
+            IndexMinPQ order = new IndexMinPQ(n);
+            for (int v = 0; v < n; v++) {
+                order.add(v, priority(v));
+            }
+            int rank = 0;
+            while (!order.isEmpty()) {
+                int v = order.removeMin();
+                // priorities go stale as neighbors are contracted, so check
+                // the cheapest one again before taking it
+                if (!order.isEmpty()) {
+                    double current = priority(v);
+                    if (current > order.peekMinKey()) {
+                        order.add(v, current);
+                        continue;
+                    }
+                }
+                int count = collectNeighbors(v);
+                addShortcuts(v, count, true, CONTRACT_SETTLE_LIMIT);
+                contracted[v] = true;
+                ranks[v] = rank;
+                rank++;
+                // priority() below refills the neighbor arrays, so copy first
+                int[] affected = Arrays.copyOf(neighbors, count);
+                for (int u : affected) {
+                    deletedNeighbors[u]++;
+                    levels[u] = Math.max(levels[u], levels[v] + 1);
+                }
+                for (int u : affected) {
+                    if (order.contains(u)) {
+                        order.changeKey(u, priority(u));
+                    }
+                }
+            }
+        }
+
+        private double priority(int v) {
+            int count = collectNeighbors(v);
+            int shortcuts = addShortcuts(v, count, false, PRIORITY_SETTLE_LIMIT);
+            return 2 * (shortcuts - count) + deletedNeighbors[v] + levels[v];
+        }
+
+        // Fills neighbors with v's uncontracted neighbors and returns how many
+        // there are. Arcs to contracted vertices are dropped from v's list on
+        // the way.
+        private int collectNeighbors(int v) {
+            neighborStamp++;
+            if (neighborStamp == 0) {
+                Arrays.fill(neighborStamps, 0);
+                neighborStamp = 1;
+            }
+            int count = 0;
+            int kept = 0;
+            for (int i = 0; i < degrees[v]; i++) {
+                int arc = adjacency[v][i];
+                int u = otherEnd(arc, v);
+                if (contracted[u]) {
+                    continue;
+                }
+                adjacency[v][kept] = arc;
+                kept++;
+                if (neighborStamps[u] == neighborStamp) {
+                    int slot = neighborSlots[u];
+                    double weight = weights.getDouble(arc);
+                    if (weight < neighborWeights[slot]) {
+                        neighborWeights[slot] = weight;
+                        neighborArcs[slot] = arc;
+                    }
+                    continue;
+                }
+                if (count == neighbors.length) {
+                    neighbors = Arrays.copyOf(neighbors, count * 2);
+                    neighborWeights = Arrays.copyOf(neighborWeights, count * 2);
+                    neighborArcs = Arrays.copyOf(neighborArcs, count * 2);
+                }
+                neighborStamps[u] = neighborStamp;
+                neighborSlots[u] = count;
+                neighbors[count] = u;
+                neighborWeights[count] = weights.getDouble(arc);
+                neighborArcs[count] = arc;
+                count++;
+            }
+            degrees[v] = kept;
+            return count;
+        }
+
+        // Counts, and if apply is set adds, the shortcuts needed to remove v,
+        // whose neighbors were just collected.
+        private int addShortcuts(int v, int count, boolean apply, int settleLimit) {
+            int shortcuts = 0;
+            for (int i = 0; i < count - 1; i++) {
+                int u = neighbors[i];
+                double maxCost = 0.0;
+                for (int j = i + 1; j < count; j++) {
+                    maxCost = Math.max(maxCost, neighborWeights[i] + neighborWeights[j]);
+                }
+                witnessSearch(u, v, i, count - i - 1, maxCost, settleLimit);
+                for (int j = i + 1; j < count; j++) {
+                    int w = neighbors[j];
+                    double via = neighborWeights[i] + neighborWeights[j];
+                    if (stamps[w] == stamp && distances[w] <= via) {
+                        continue;
+                    }
+                    shortcuts++;
+                    if (apply) {
+                        addArc(u, w, via, -1, neighborArcs[i], neighborArcs[j]);
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        // Dijkstra from source over uncontracted vertices other than skip. It
+        // stops once the targets, the neighbors after slot in the neighbor
+        // arrays, are all settled, or gives up past maxCost or after
+        // settleLimit vertices.
+        private void witnessSearch(int source, int skip, int slot, int targets, double maxCost, int settleLimit) {
+            queue.clear();
+            stamp++;
+            if (stamp == 0) {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+            stamps[source] = stamp;
+            distances[source] = 0.0;
+            queue.add(source, 0.0);
+            int settled = 0;
+            while (!queue.isEmpty() && settled < settleLimit && targets > 0) {
+                int u = queue.removeMin();
+                double cost = distances[u];
+                if (cost > maxCost) {
+                    break;
+                }
+                settled++;
+                if (neighborStamps[u] == neighborStamp && neighborSlots[u] > slot) {
+                    targets--;
+                }
+                for (int i = 0; i < degrees[u]; i++) {
+                    int arc = adjacency[u][i];
+                    int x = otherEnd(arc, u);
+                    if (x == skip || contracted[x]) {
+                        continue;
+                    }
+                    double newCost = cost + weights.getDouble(arc);
+                    if (stamps[x] != stamp) {
+                        stamps[x] = stamp;
+                        distances[x] = newCost;
+                        queue.add(x, newCost);
+                    } else if (newCost < distances[x] && queue.contains(x)) {
+                        distances[x] = newCost;
+                        queue.decreaseKey(x, newCost);
+                    }
+                }
+            }
+        }
+
+        private int otherEnd(int arc, int v) {
+            int u = from.getInt(arc);
+            return u == v ? to.getInt(arc) : u;
+        }
+
+        private void addArc(int u, int v, double weight, int edge, int firstArc, int secondArc) {
+            int arc = from.size();
+            from.addInt(u);
+            to.addInt(v);
+            weights.addDouble(weight);
+            edges.addInt(edge);
+            first.addInt(firstArc);
+            second.addInt(secondArc);
+            addToAdjacency(u, arc);
+            addToAdjacency(v, arc);
+        }
+
+        private void addToAdjacency(int v, int arc) {
+            if (degrees[v] == adjacency[v].length) {
+                adjacency[v] = Arrays.copyOf(adjacency[v], degrees[v] * 2);
+            }
+            adjacency[v][degrees[v]] = arc;
+            degrees[v]++;
+        }
+    }
+}
@@ -3,236 +3,92 @@ package datastructures.concrete;
 import datastructures.interfaces.IList;
 import misc.exceptions.EmptyContainerException;
 import java.util.Iterator;
+import java.util.ListIterator;
 import java.util.NoSuchElementException;
 
+/**
+ * Doubly linked list with indexed access.
+ *
+ * get, set, insert and delete reach a node by walking from the closest of the
+ * front, the back, or the finger: the last node reached by index, together
+ * with its index. Looping over indices in order, or touching indices near the
+ * previous one, therefore costs O(1) per call instead of O(n). listIterator
+ * gives a cursor that can also insert, replace and remove in place.
+ */
 public class DoubleLinkedList<T> implements IList<T> {
     private Node<T> front;
     private Node<T> back;
     private int size;
+    // the node most recently reached by index, or null
+    private Node<T> finger;
+    private int fingerIndex;
 
     public DoubleLinkedList() {
         this.front = null;
         this.back = null;
         this.size = 0;
+        this.finger = null;
+        this.fingerIndex = 0;
     }
 
     @Override
     public void add(T item) {
-        Node newNode = new Node(back, item, null);
+        Node<T> newNode = new Node<>(back, item, null);
         if (size == 0) {
             front = newNode;
-            back = newNode;
         } else {
             back.next = newNode;
-            back = back.next;
         }
+        back = newNode;
         size++;
     }
 
     @Override
     public T remove() {
-        Node<T> currentBack = back;
         if (size == 0) {
             throw new EmptyContainerException();
-        } else if (size == 1) {
-            back = null;
-            front = null;
-            size--;
-            return currentBack.data;
-        } else {
-            back = back.prev;
-            back.next = null;
-            size--;
-            return currentBack.data;
         }
-
+        return unlink(back, size - 1);
     }
 
     @Override
     public T get(int index) {
-        if (index < 0 || index >= size()) {
-            throw new IndexOutOfBoundsException();
-        }
-        int positionCount = 0;
-
-        Node<T> current = front;
-
-        if (size == 0) {
-            return null;
-        } else {
-            while (current != null) {
-                if (positionCount == index) {
-                    return current.data;
-                }
-                positionCount++;
-                current = current.next;
-            }
-        }
-        return null;
+        checkIndex(index);
+        return nodeAt(index).data;
     }
 
     @Override
     public void set(int index, T item) {
-        Node newNode = new Node(item);
-        Node<T> current = front;
-        Node<T> currentBack = back;
-        int positionCount = 0;
-
-        if (index < 0 || index >= this.size()) {
-            throw new IndexOutOfBoundsException();
-        } else if (size == 1 && index == 0) {
-            front = newNode;
-            newNode.next = null;
-            back = newNode;
-
-            return;
-        } else if (index == 0) {
-            current.next.prev = newNode;
-            newNode.next = current.next;
-            front = newNode;
-            return;
-        } else if (index > 0 && index < size - 1) {
-            while (current != null) {
-                if (positionCount == index) {
-                    current.prev.next = newNode;
-                    newNode.next = current.next;
-
-                    newNode.prev = current.prev;
-                    current.next.prev = newNode;
-
-                    current.prev = null;
-                    current.next = null;
-
-                }
-                positionCount++;
-                current = current.next;
-            }
-        } else {
-            currentBack.prev.next = newNode;
-            newNode.prev = currentBack.prev;
-            back = newNode;
-        }
+        checkIndex(index);
+        nodeAt(index).data = item;
     }
 
     @Override
     public void insert(int index, T item) {
-
-        if (index < 0 || index >= size + 1) {
+        if (index < 0 || index > size) {
             throw new IndexOutOfBoundsException();
         }
-
-        int positionCount = 0;
-        Node newNode = new Node(item);
-
-        Node<T> current = front;
-        Node<T> currentBack = back;
-
-        if (size == 0) {
-            front = newNode;
-            back = newNode;
-            size++;
-            return;
-        } else if (index == 0) {
-            current.prev = newNode;
-            newNode.next = current;
-            front = newNode;
-            size++;
-            return;
-        } else if ((index > 0) && (index <= size - 1)) {
-
-            int distanceFromBack = size - index;
-            int distanceFromFront = index;
-
-            if (distanceFromBack >= distanceFromFront) {
-                while (current != null) {
-                    if (positionCount == index) {
-                        newNode.prev = current.prev;
-                        current.prev.next = newNode;
-                        current.prev = newNode;
-                        newNode.next = current;
-                        size++;
-                    }
-                    positionCount++;
-                    current = current.next;
-                }
-            } else if (distanceFromBack < distanceFromFront) {
-                positionCount = size;
-                while (currentBack != null) {
-                    if (positionCount == index) {
-                        newNode.next = currentBack.next;
-                        newNode.prev = currentBack;
-                        currentBack.next.prev = newNode;
-                        currentBack.next = newNode;
-                        size++;
-                        return;
-                    }
-                    positionCount--;
-                    currentBack = currentBack.prev;
-                }
-            }
-        } else {
+        if (index == size) {
             add(item);
+            return;
         }
-
+        linkBefore(nodeAt(index), index, item);
     }
 
     @Override
     public T delete(int index) {
-        Node<T> current = front;
-        T result;
-
-        if (index < 0 || index >= size) {
-            throw new IndexOutOfBoundsException();
-        } else if (index == 0 && size != 1) {
-            result = front.data;
-            front = front.next;
-            front.prev = null;
-        } else if (index == 0 && size == 1) {
-            result = front.data;
-            front = null;
-            back = null;
-        } else if (index == size - 1) {
-            result = front.data;
-            back = back.prev;
-            back.next = null;
-        } else {
-            int positionCount = 0;
-            while (current.next != null) {
-                if (positionCount == index) {
-                    current.prev.next = current.next;
-                    current.next.prev = current.prev;
-                }
-                positionCount++;
-                current = current.next;
-
-            }
-            result = current.data;
-        }
-
-        size--;
-        return result;
+        checkIndex(index);
+        return unlink(nodeAt(index), index);
     }
 
     @Override
     public int indexOf(T item) {
-        Node nodeToCompare = new Node(item);
         int positionCount = 0;
-        Node<T> current = front;
-
-        if (current == null) {
-            return -1;
-        } else {
-            while (current != null) {
-
-                if (current.data == nodeToCompare.data && current.data == null) {
-                    return positionCount;
-                }
-                if (current.data.equals(nodeToCompare.data)) {
-                    return positionCount;
-                }
-                positionCount++;
-                current = current.next;
+        for (Node<T> current = front; current != null; current = current.next) {
+            if (item == null ? current.data == null : item.equals(current.data)) {
+                return positionCount;
             }
+            positionCount++;
         }
         return -1;
     }
@@ -244,28 +100,101 @@ public class DoubleLinkedList<T> implements IList<T> {
 
     @Override
     public boolean contains(T other) {
-        Node<T> current = front;
+        return indexOf(other) >= 0;
+    }
 
-        while (current != null) {
-            if (current.data == null & other == null) {
-                return true;
+    @Override
+    public Iterator<T> iterator() {
+        return new DoubleLinkedListIterator<>(this.front);
+    }
 
-            }
-            if (current.data != null && current.data.equals(other)) {
-                return true;
-            }
+    public ListIterator<T> listIterator() {
+        return new Cursor(0);
+    }
+
+    /**
+     * Returns a cursor positioned so that its first call to next returns the
+     * item at index.
+     */
+    public ListIterator<T> listIterator(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new Cursor(index);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    // Walks from whichever of front, back and finger is nearest, and leaves
+    // the finger on the node it finds.
+    private Node<T> nodeAt(int index) {
+        Node<T> current;
+        int position;
+        int fromBack = size - 1 - index;
+        if (index <= fromBack) {
+            current = front;
+            position = 0;
+        } else {
+            current = back;
+            position = size - 1;
+        }
+        if (finger != null && Math.abs(fingerIndex - index) < Math.min(index, fromBack)) {
+            current = finger;
+            position = fingerIndex;
+        }
+        while (position < index) {
             current = current.next;
+            position++;
+        }
+        while (position > index) {
+            current = current.prev;
+            position--;
         }
-        return false;
+        finger = current;
+        fingerIndex = index;
+        return current;
     }
 
-    @Override
-    public Iterator<T> iterator() {
-        return new DoubleLinkedListIterator<>(this.front);
+    private void linkBefore(Node<T> successor, int index, T item) {
+        Node<T> newNode = new Node<>(successor.prev, item, successor);
+        if (successor.prev == null) {
+            front = newNode;
+        } else {
+            successor.prev.next = newNode;
+        }
+        successor.prev = newNode;
+        size++;
+        if (finger != null && index <= fingerIndex) {
+            fingerIndex++;
+        }
+    }
+
+    private T unlink(Node<T> node, int index) {
+        if (node.prev == null) {
+            front = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            back = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        size--;
+        if (finger == node) {
+            finger = null;
+        } else if (finger != null && index < fingerIndex) {
+            fingerIndex--;
+        }
+        return node.data;
     }
 
     private static class Node<E> {
-        public final E data;
+        public E data;
         public Node<E> prev;
         public Node<E> next;
 
@@ -274,33 +203,119 @@ public class DoubleLinkedList<T> implements IList<T> {
             this.prev = prev;
             this.next = next;
         }
-
-        public Node(E data) {
-            this(null, data, null);
-        }
-
     }
 
     private static class DoubleLinkedListIterator<T> implements Iterator<T> {
         private Node<T> current;
+
         public DoubleLinkedListIterator(Node<T> current) {
             this.current = current;
         }
-        
+
+        @Override
         public boolean hasNext() {
-            if (current != null) {
-                return true;
-            }
-            return false;
+            return current != null;
         }
 
+        @Override
         public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
             Node<T> pointer = current;
-            if (hasNext()) {
-                current = current.next;
-                return pointer.data;
+            current = current.next;
+            return pointer.data;
+        }
+    }
+
+    // Sits between two items. lastReturned is the node that remove and set
+    // act on, and is cleared by any change to the list through the cursor.
+    private class Cursor implements ListIterator<T> {
+        private Node<T> nextNode;
+        private int nextIndex;
+        private Node<T> lastReturned;
+
+        public Cursor(int index) {
+            this.nextNode = index == size ? null : nodeAt(index);
+            this.nextIndex = index;
+            this.lastReturned = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < size;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = nextNode;
+            nextNode = nextNode.next;
+            nextIndex++;
+            return lastReturned.data;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+
+        @Override
+        public T previous() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            nextNode = nextNode == null ? back : nextNode.prev;
+            lastReturned = nextNode;
+            nextIndex--;
+            return lastReturned.data;
+        }
+
+        @Override
+        public int nextIndex() {
+            return nextIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (lastReturned == nextNode) {
+                // came from previous(), so the cursor stays at the same index
+                nextNode = nextNode.next;
+                unlink(lastReturned, nextIndex);
+            } else {
+                nextIndex--;
+                unlink(lastReturned, nextIndex);
+            }
+            lastReturned = null;
+        }
+
+        @Override
+        public void set(T item) {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            lastReturned.data = item;
+        }
+
+        @Override
+        public void add(T item) {
+            if (nextNode == null) {
+                DoubleLinkedList.this.add(item);
+            } else {
+                linkBefore(nextNode, nextIndex, item);
             }
-            throw new NoSuchElementException();
+            nextIndex++;
+            lastReturned = null;
         }
     }
 }
@@ -0,0 +1,228 @@
+package datastructures.concrete;
+
+import datastructures.interfaces.IList;
+import misc.exceptions.EmptyContainerException;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Growable array of doubles that is also an IList of Doubles.
+ *
+ * The IList methods box and unbox at the boundary and reject null. Hot code
+ * should use the *Double methods and doubleIterator, which never box.
+ */
+public class DoubleList implements IList<Double> {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private double[] items;
+    private int size;
+
+    public DoubleList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DoubleList(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.items = new double[capacity];
+        this.size = 0;
+    }
+
+    public DoubleList(double[] values) {
+        this.items = Arrays.copyOf(values, values.length);
+        this.size = values.length;
+    }
+
+    public void addDouble(double item) {
+        if (size == items.length) {
+            grow(size + 1);
+        }
+        items[size] = item;
+        size++;
+    }
+
+    public double removeDouble() {
+        if (size == 0) {
+            throw new EmptyContainerException();
+        }
+        size--;
+        return items[size];
+    }
+
+    public double getDouble(int index) {
+        checkIndex(index);
+        return items[index];
+    }
+
+    public void setDouble(int index, double item) {
+        checkIndex(index);
+        items[index] = item;
+    }
+
+    public void insertDouble(int index, double item) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (size == items.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(items, index, items, index + 1, size - index);
+        items[index] = item;
+        size++;
+    }
+
+    public double deleteDouble(int index) {
+        checkIndex(index);
+        double item = items[index];
+        System.arraycopy(items, index + 1, items, index, size - index - 1);
+        size--;
+        return item;
+    }
+
+    public int indexOfDouble(double item) {
+        // matches Double.equals, so NaN is found and 0.0 differs from -0.0
+        long bits = Double.doubleToLongBits(item);
+        for (int i = 0; i < size; i++) {
+            if (Double.doubleToLongBits(items[i]) == bits) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean containsDouble(double item) {
+        return indexOfDouble(item) >= 0;
+    }
+
+    public void addAll(double[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    public void addAll(double[] values, int from, int to) {
+        if (from < 0 || to > values.length || from > to) {
+            throw new IndexOutOfBoundsException();
+        }
+        int count = to - from;
+        if (size + count > items.length) {
+            grow(size + count);
+        }
+        System.arraycopy(values, from, items, size, count);
+        size += count;
+    }
+
+    public void addAll(DoubleList other) {
+        addAll(other.items, 0, other.size);
+    }
+
+    /**
+     * Sorts the items in ascending order.
+     */
+    public void sort() {
+        Arrays.sort(items, 0, size);
+    }
+
+    /**
+     * Removes every item but keeps the backing array for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public double[] toArray() {
+        return Arrays.copyOf(items, size);
+    }
+
+    public PrimitiveIterator.OfDouble doubleIterator() {
+        return new DoubleListIterator();
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, items.length + (items.length >> 1) + 1);
+        items = Arrays.copyOf(items, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private static double unbox(Double item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        return item;
+    }
+
+    @Override
+    public void add(Double item) {
+        addDouble(unbox(item));
+    }
+
+    @Override
+    public Double remove() {
+        return removeDouble();
+    }
+
+    @Override
+    public Double get(int index) {
+        return getDouble(index);
+    }
+
+    @Override
+    public void set(int index, Double item) {
+        setDouble(index, unbox(item));
+    }
+
+    @Override
+    public void insert(int index, Double item) {
+        insertDouble(index, unbox(item));
+    }
+
+    @Override
+    public Double delete(int index) {
+        return deleteDouble(index);
+    }
+
+    @Override
+    public int indexOf(Double item) {
+        return item == null ? -1 : indexOfDouble(item);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Double other) {
+        return indexOf(other) >= 0;
+    }
+
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return doubleIterator();
+    }
+
+    private class DoubleListIterator implements PrimitiveIterator.OfDouble {
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public double nextDouble() {
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+            double item = items[index];
+            index++;
+            return item;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package datastructures.concrete;
+
+import datastructures.interfaces.IEdge;
+
+/**
+ * Bounded stack of idle ShortestPathFinders for one graph. A search borrows a
+ * finder with acquire and hands it back with release, so its scratch arrays
+ * are reused without tying them to any thread. At most capacity finders are
+ * kept; extra ones are left to the garbage collector. This class is
+ * thread-safe.
+ */
+final class FinderPool<V, E extends IEdge<V> & Comparable<E>> {
+    private final ShortestPathFinder<V, E>[] idle;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public FinderPool(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.idle = (ShortestPathFinder<V, E>[]) new ShortestPathFinder[capacity];
+        this.size = 0;
+    }
+
+    // Returns an idle finder over graph, or a new one if there is none.
+    // Finders over an older view of the graph are discarded on the way.
+    public ShortestPathFinder<V, E> acquire(CompactGraph<V, E> graph) {
+        synchronized (this) {
+            while (size > 0) {
+                size--;
+                ShortestPathFinder<V, E> finder = idle[size];
+                idle[size] = null;
+                if (finder.getGraph() == graph) {
+                    return finder;
+                }
+            }
+        }
+        return new ShortestPathFinder<>(graph);
+    }
+
+    public synchronized void release(ShortestPathFinder<V, E> finder) {
+        if (size < idle.length) {
+            idle[size] = finder;
+            size++;
+        }
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < size; i++) {
+            idle[i] = null;
+        }
+        size = 0;
+    }
+}
@@ -2,6 +2,7 @@ package datastructures.concrete;
 
 import datastructures.concrete.dictionaries.ChainedHashDictionary;
 import datastructures.concrete.dictionaries.KVPair;
+import datastructures.concrete.dictionaries.ObjectIntDictionary;
 import datastructures.interfaces.*;
 import datastructures.concrete.ArrayDisjointSet;
 import misc.Sorter;
@@ -9,61 +10,251 @@ import misc.exceptions.NoPathExistsException;
 import misc.exceptions.NotYetImplementedException;
 import sun.security.provider.certpath.Vertex;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Array;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 public class Graph<V, E extends IEdge<V> & Comparable<E>> {
 
     private IDictionary<V, ISet<E>> adjacencyList;
+    // null when the graph was streamed from an iterator; see edges()
     private IList<E> edgesList;
     private IList<V> vertexList;
+    private int numEdges;
+    // false until the first mutation copies the caller's lists
+    private boolean ownsLists;
+    // bumped by every mutation so caches can tell their answers are stale
+    private volatile long version;
+    // built on first use and dropped by every mutation
+    private volatile CompactGraph<V, E> compact;
+    private volatile ShortestPathCache<V, E> cache;
+    // idle finders, so their scratch arrays are reused across queries
+    private final FinderPool<V, E> finders = new FinderPool<>(Runtime.getRuntime().availableProcessors());
 
     public Graph(IList<V> vertices, IList<E> edges) {
+        if (vertices == null || edges == null) {
+            throw new IllegalArgumentException();
+        }
         this.vertexList = vertices;
         this.edgesList = edges;
-        this.adjacencyList = new ChainedHashDictionary<>();
-        ISet<E> set;
 
+        // counting degrees first lets every adjacency set be allocated at
+        // its final size, so none of them rehash while edges are added
+        ObjectIntDictionary<V> degrees = new ObjectIntDictionary<>(vertices.size());
+        for (V vertex : vertices) {
+            if (vertex == null || degrees.containsKey(vertex)) {
+                throw new IllegalArgumentException();
+            }
+            degrees.put(vertex, 0);
+        }
+        for (E edge : edges) {
+            validateEdge(edge, degrees);
+            degrees.put(edge.getVertex1(), degrees.get(edge.getVertex1()) + 1);
+            degrees.put(edge.getVertex2(), degrees.get(edge.getVertex2()) + 1);
+        }
+
+        this.adjacencyList = new ChainedHashDictionary<>(vertices.size(), 0.5);
+        for (V vertex : vertices) {
+            adjacencyList.put(vertex, new ChainedHashSet<>(degrees.get(vertex)));
+        }
+        for (E edge : edges) {
+            if (!linkEdge(edge)) {
+                // the list holds a duplicate, so let edges() rebuild it from
+                // the edges actually linked
+                this.edgesList = null;
+            }
+        }
+    }
+
+    /**
+     * Builds a graph from edges that are read once from the iterator and never
+     * collected into a list, such as edges parsed from a file.
+     */
+    public Graph(IList<V> vertices, Iterator<E> edges) {
         if (vertices == null || edges == null) {
             throw new IllegalArgumentException();
         }
+        this.vertexList = vertices;
+        this.edgesList = null;
+        this.adjacencyList = new ChainedHashDictionary<>(vertices.size(), 0.5);
+        for (V vertex : vertices) {
+            if (vertex == null || adjacencyList.containsKey(vertex)) {
+                throw new IllegalArgumentException();
+            }
+            adjacencyList.put(vertex, new ChainedHashSet<>());
+        }
+        addEdges(edges);
+    }
 
-        if (vertices.contains(null) || edges.contains(null)) {
+    /**
+     * Builds a graph whose edges are parsed, one per line, from the given file.
+     */
+    public static <V, E extends IEdge<V> & Comparable<E>> Graph<V, E> fromFile(
+            IList<V> vertices, Path path, Function<String, E> parser) {
+        if (path == null || parser == null) {
             throw new IllegalArgumentException();
         }
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            Iterator<E> edges = reader.lines()
+                    .filter(line -> !line.trim().isEmpty())
+                    .map(parser)
+                    .iterator();
+            return new Graph<>(vertices, edges);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        for (V vertex: vertices) {
-            if (adjacencyList.containsKey(vertex)) {
-               throw new IllegalArgumentException();
-            }
-            set = new ChainedHashSet<>();
-            adjacencyList.put(vertex, set);
+    private static <V, E extends IEdge<V>> void validateEdge(E edge, ObjectIntDictionary<V> vertices) {
+        if (edge == null || !validWeight(edge.getWeight())) {
+            throw new IllegalArgumentException();
+        }
+        if (!vertices.containsKey(edge.getVertex1()) || !vertices.containsKey(edge.getVertex2())) {
+            throw new IllegalArgumentException();
         }
+    }
 
-        for (E edge : edges) {
-            if (edge.getWeight() < 0) {
-                throw new IllegalArgumentException();
-            }
+    private void addEdges(Iterator<E> edges) {
+        while (edges.hasNext()) {
+            insertEdge(edges.next());
+        }
+    }
 
-            V vertex1 = edge.getVertex1();
-            V vertex2 = edge.getVertex2();
+    // NaN fails this test too, since it would break every ordering by weight
+    static boolean validWeight(double weight) {
+        return weight >= 0;
+    }
 
-            if (!vertices.contains(vertex1)) {
-                throw new IllegalArgumentException();
-            }
+    // Validates the edge, then adds it as linkEdge does.
+    private boolean insertEdge(E edge) {
+        if (edge == null || !validWeight(edge.getWeight())) {
+            throw new IllegalArgumentException();
+        }
+        if (!adjacencyList.containsKey(edge.getVertex1()) || !adjacencyList.containsKey(edge.getVertex2())) {
+            throw new IllegalArgumentException();
+        }
+        return linkEdge(edge);
+    }
 
-            if (!vertices.contains(vertex2)) {
-                throw new IllegalArgumentException();
+    // Adds an already validated edge to both endpoints' sets and returns
+    // whether it was new.
+    private boolean linkEdge(E edge) {
+        ISet<E> vertex1Edges = adjacencyList.get(edge.getVertex1());
+        int oldSize = vertex1Edges.size();
+        vertex1Edges.add(edge);
+        if (vertex1Edges.size() == oldSize) {
+            return false;
+        }
+        numEdges++;
+        adjacencyList.get(edge.getVertex2()).add(edge);
+        return true;
+    }
+
+    /**
+     * Adds a vertex with no edges.
+     *
+     * Mutations must not run while other threads are querying this graph.
+     * Each one discards the compact view and any cached paths, which are
+     * rebuilt on the next query.
+     */
+    public void addVertex(V vertex) {
+        if (vertex == null || adjacencyList.containsKey(vertex)) {
+            throw new IllegalArgumentException();
+        }
+        ownLists();
+        vertexList.add(vertex);
+        adjacencyList.put(vertex, new ChainedHashSet<>());
+        modified();
+    }
+
+    /**
+     * Adds an edge between two vertices already in the graph. Adding an edge
+     * that is already present does nothing.
+     */
+    public void addEdge(E edge) {
+        ownLists();
+        if (insertEdge(edge)) {
+            edgesList.add(edge);
+            modified();
+        }
+    }
+
+    // The constructors keep the caller's lists, so copy them before the
+    // first change rather than modifying them underneath the caller.
+    private void ownLists() {
+        if (!ownsLists) {
+            IList<V> vertices = new ChunkedList<>();
+            for (V vertex : vertexList) {
+                vertices.add(vertex);
+            }
+            IList<E> edges = new ChunkedList<>();
+            for (E edge : edges()) {
+                edges.add(edge);
             }
+            vertexList = vertices;
+            edgesList = edges;
+            ownsLists = true;
+        }
+    }
 
-            ISet<E> vertex1Edges = adjacencyList.get(vertex1);
-            ISet<E> vertex2Edges = adjacencyList.get(vertex2);
+    private void modified() {
+        version++;
+        compact = null;
+        finders.clear();
+        ShortestPathCache<V, E> current = cache;
+        if (current != null) {
+            current.invalidate();
+        }
+    }
 
-            vertex1Edges.add(edge);
-            vertex2Edges.add(edge);
+    long version() {
+        return version;
+    }
 
-            adjacencyList.put(vertex1, vertex1Edges);
-            adjacencyList.put(vertex2, vertex2Edges);
+    /**
+     * Turns on caching of shortest-path queries, keeping up to maxPaths
+     * recent (start, end) answers and up to maxTrees shortest path trees for
+     * frequently queried sources. Returns the cache so its hit and miss
+     * counts can be read.
+     */
+    public ShortestPathCache<V, E> enablePathCache(int maxPaths, int maxTrees) {
+        ShortestPathCache<V, E> result = new ShortestPathCache<>(this, maxPaths, maxTrees);
+        cache = result;
+        return result;
+    }
+
+    public void disablePathCache() {
+        cache = null;
+    }
+
+    /**
+     * Returns the cache set up by enablePathCache, or null if caching is off.
+     */
+    public ShortestPathCache<V, E> getPathCache() {
+        return cache;
+    }
+
+    // Returns every edge once, rebuilding the list from the adjacency sets if
+    // the graph was streamed. Each edge is taken from its first vertex's set.
+    private IList<E> edges() {
+        if (edgesList == null) {
+            IList<E> output = new ChunkedList<>();
+            for (KVPair<V, ISet<E>> vertex : adjacencyList) {
+                for (E edge : vertex.getValue()) {
+                    if (edge.getVertex1().equals(vertex.getKey())) {
+                        output.add(edge);
+                    }
+                }
+            }
+            edgesList = output;
         }
+        return edgesList;
     }
 
     public Graph(ISet<V> vertices, ISet<E> edges) {
@@ -75,7 +266,7 @@ public class Graph<V, E extends IEdge<V> & Comparable<E>> {
         if (set == null) {
             throw new IllegalArgumentException();
         }
-        IList<T> output = new DoubleLinkedList<>();
+        IList<T> output = new ChunkedList<>();
         for (T item : set) {
             output.add(item);
         }
@@ -90,30 +281,49 @@ public class Graph<V, E extends IEdge<V> & Comparable<E>> {
     }
 
     public int numEdges() {
-        ISet<E> edgesSet = new ChainedHashSet<>();
-        for (KVPair<V, ISet<E>> vertex: adjacencyList) {
-            for (E edges: vertex.getValue()) {
-                edgesSet.add(edges);
+        return numEdges;
+    }
+
+    /**
+     * Returns a compressed sparse row copy of this graph, which stores
+     * adjacency in flat primitive arrays instead of per-vertex hash sets.
+     */
+    public CompactGraph<V, E> toCompactGraph() {
+        CompactGraph<V, E> result = compact;
+        if (result == null) {
+            synchronized (this) {
+                result = compact;
+                if (result == null) {
+                    result = new CompactGraph<>(vertexList, edges());
+                    compact = result;
+                }
             }
         }
-        return edgesSet.size();
+        return result;
+    }
+
+    // Runs search with a finder borrowed from the pool for its duration.
+    private <T> T withFinder(Function<ShortestPathFinder<V, E>, T> search) {
+        ShortestPathFinder<V, E> finder = finders.acquire(toCompactGraph());
+        try {
+            return search.apply(finder);
+        } finally {
+            finders.release(finder);
+        }
     }
 
     public ISet<E> findMinimumSpanningTree() {
         ISet<E> setToReturn = new ChainedHashSet<>();
-        ArrayDisjointSet<V> set = new ArrayDisjointSet();
+        ArrayDisjointSet<V> set = new ArrayDisjointSet<>(numVertices());
 
         for (KVPair<V, ISet<E>> vertex : adjacencyList) {
             set.makeSet(vertex.getKey());
         }
 
-        IList<E> sortedList = Sorter.topKSort(edgesList.size(), edgesList);
+        IList<E> sortedList = Sorter.topKSort(edges().size(), edges());
 
         for (E edge: sortedList) {
-            V vertex1 = edge.getVertex1();
-            V vertex2 = edge.getVertex2();
-            if (!(set.findSet(vertex1) == set.findSet(vertex2))) {
-                set.union(vertex1, vertex2);
+            if (set.unionIds(set.idOf(edge.getVertex1()), set.idOf(edge.getVertex2()))) {
                 setToReturn.add(edge);
             }
         }
@@ -121,84 +331,233 @@ public class Graph<V, E extends IEdge<V> & Comparable<E>> {
         return setToReturn;
     }
 
-    private static class ExampleComparableVertex<V, E> implements Comparable<ExampleComparableVertex<V, E>> {
+    /**
+     * Returns the vertices of each connected component, one list per
+     * component.
+     */
+    public IList<IList<V>> connectedComponents() {
+        CompactGraph<V, E> graph = toCompactGraph();
+        int n = graph.numVertices();
+        ArrayDisjointSet<V> set = new ArrayDisjointSet<>(n);
+        for (int id = 0; id < n; id++) {
+            set.makeSet(graph.vertexAt(id));
+        }
+        for (int edge = 0; edge < graph.numEdges(); edge++) {
+            set.unionIds(graph.source(edge), graph.destination(edge));
+        }
+
+        IList<IList<V>> components = new DoubleLinkedList<>();
+        for (int id = 0; id < n; id++) {
+            if (set.findSetById(id) == id) {
+                components.add(set.membersById(id));
+            }
+        }
+        return components;
+    }
 
+    /**
+     * Returns a minimum spanning tree computed by parallel Boruvka rounds on
+     * the given number of threads. Its total weight matches
+     * findMinimumSpanningTree(), though ties between equal weights may be
+     * broken differently.
+     */
+    public ISet<E> findMinimumSpanningTree(int parallelism) {
+        return toCompactGraph().findMinimumSpanningTree(parallelism);
+    }
+
+    /**
+     * Priority queue used by findShortestPathBetween. RADIX_HEAP requires every
+     * edge weight on the explored part of the graph to be a whole number.
+     */
+    public enum QueueStrategy {
+        ARRAY_HEAP,
+        PAIRING_HEAP,
+        RADIX_HEAP
+    }
+
+    private static class VertexEntry<V> implements Comparable<VertexEntry<V>> {
         private final V vertex;
         private final double cost;
-        private V preVer;
-        private  E preEdge;
 
-        public ExampleComparableVertex(V vertex , double cost){
+        public VertexEntry(V vertex, double cost) {
             this.vertex = vertex;
             this.cost = cost;
         }
 
         @Override
-        public int compareTo(ExampleComparableVertex other) {
-            if(this.cost < other.cost){
-                return -1;
-            }
-            else if (this.cost > other.cost) {
-                return 1;
-            }
-            else {
-                return 0;
-            }
+        public int compareTo(VertexEntry<V> other) {
+            return Double.compare(this.cost, other.cost);
         }
     }
 
-    public IList<E> findShortestPathBetween(V start, V end) {
+    private static <V> IPriorityQueue<VertexEntry<V>> makeQueue(QueueStrategy strategy) {
+        switch (strategy) {
+            case PAIRING_HEAP:
+                return new PairingHeap<>();
+            case RADIX_HEAP:
+                return new RadixHeap<>(entry -> (long) entry.cost);
+            default:
+                return new ArrayHeap<>();
+        }
+    }
 
-        IDictionary<V,ExampleComparableVertex> vertices = new ChainedHashDictionary<>();
+    /**
+     * Returns the distance from source to every vertex, with the edges of a
+     * shortest path tree.
+     */
+    public ShortestPathTree<V, E> shortestPathTree(V source) {
+        ShortestPathCache<V, E> current = cache;
+        if (current != null) {
+            return current.shortestPathTree(source);
+        }
+        return searchShortestPathTree(source);
+    }
 
-        ExampleComparableVertex vertexObj;
-        ExampleComparableVertex newVertexObj;
+    ShortestPathTree<V, E> searchShortestPathTree(V source) {
+        return withFinder(finder -> finder.shortestPathTree(source));
+    }
 
-        for(V vertex: vertexList){
-            vertexObj = new ExampleComparableVertex(vertex,Double.POSITIVE_INFINITY);
-            vertices.put(vertex,vertexObj);
+    /**
+     * Computes shortestPathTree for every source, in parallel on the common
+     * fork/join pool. The trees are returned in the order of the sources.
+     */
+    public IList<ShortestPathTree<V, E>> shortestPaths(IList<V> sources) {
+        return shortestPaths(sources, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Like shortestPaths(sources), but runs on the given pool.
+     */
+    @SuppressWarnings("unchecked")
+    public IList<ShortestPathTree<V, E>> shortestPaths(IList<V> sources, ForkJoinPool pool) {
+        if (sources == null || pool == null) {
+            throw new IllegalArgumentException();
+        }
+        CompactGraph<V, E> graph = toCompactGraph();
+        int[] ids = new int[sources.size()];
+        int i = 0;
+        for (V source : sources) {
+            ids[i] = graph.idOf(source);
+            i++;
         }
 
-        newVertexObj = new ExampleComparableVertex(start,0.0);
-        vertices.put(start,newVertexObj);
+        ShortestPathTree<V, E>[] trees = (ShortestPathTree<V, E>[]) new ShortestPathTree[ids.length];
+        Parallel.forRange(pool, 0, ids.length, 1, index -> {
+            ShortestPathFinder<V, E> finder = finders.acquire(graph);
+            try {
+                trees[index] = finder.shortestPathTree(ids[index]);
+            } finally {
+                finders.release(finder);
+            }
+        });
+
+        IList<ShortestPathTree<V, E>> result = new DoubleLinkedList<>();
+        for (ShortestPathTree<V, E> tree : trees) {
+            result.add(tree);
+        }
+        return result;
+    }
+
+    /**
+     * Preprocesses a snapshot of this graph into a ContractionHierarchy for
+     * fast repeated point-to-point queries. Later changes to this graph are
+     * not reflected in it.
+     */
+    public ContractionHierarchy<V, E> buildContractionHierarchy() {
+        return ContractionHierarchy.build(toCompactGraph());
+    }
+
+    public IList<E> findShortestPathBetween(V start, V end) {
+        return findShortestPath(start, end).getPath();
+    }
+
+    /**
+     * Returns a shortest path and its distance, found by Dijkstra's algorithm
+     * on the compact view of this graph.
+     */
+    public ShortestPath<E> findShortestPath(V start, V end) {
+        ShortestPathCache<V, E> current = cache;
+        if (current != null) {
+            return current.findShortestPath(start, end);
+        }
+        return searchShortestPath(start, end);
+    }
 
-        IPriorityQueue<ExampleComparableVertex<V,E>> MPQueue = new ArrayHeap<>();
-        //add source
-        MPQueue.add(vertices.get(start));
+    ShortestPath<E> searchShortestPath(V start, V end) {
+        return withFinder(finder -> finder.dijkstra(start, end));
+    }
 
-        ISet<ExampleComparableVertex> checker = new ChainedHashSet<>();
+    /**
+     * Like findShortestPath, but searches from both ends at once. This
+     * usually explores far fewer vertices when start and end are close
+     * together in a large graph.
+     */
+    public ShortestPath<E> findShortestPathBidirectional(V start, V end) {
+        return withFinder(finder -> finder.bidirectional(start, end));
+    }
 
-        while (!MPQueue.isEmpty()){
-            ExampleComparableVertex<V,E> minVertex = MPQueue.removeMin();
-            ISet<E> edges = adjacencyList.get(minVertex.vertex);
+    /**
+     * Like findShortestPath, but runs A* guided by the given heuristic.
+     */
+    public ShortestPath<E> findShortestPath(V start, V end, Heuristic<V> heuristic) {
+        return withFinder(finder -> finder.aStar(start, end, heuristic));
+    }
 
-            if(!checker.contains(minVertex)) {
-                for (E edge : edges) {
-                    ExampleComparableVertex vertexInDic = vertices.get(edge.getOtherVertex(minVertex.vertex));
-                    double oldCost = vertexInDic.cost;
-                    double newCost = vertexInDic.cost + edge.getWeight();
-                    if (newCost < oldCost){
-                        vertexInDic.preVer = minVertex.vertex;
-                        vertexInDic.preEdge = edge;
-                        if(oldCost == Double.POSITIVE_INFINITY){
-                            MPQueue.add(vertexInDic);
-                        } else {
-                            MPQueue.replace(vertexInDic,new ExampleComparableVertex(vertexInDic,newCost));
-                        }
+    public IList<E> findShortestPathBetween(V start, V end, QueueStrategy strategy) {
+        if (strategy == null || !adjacencyList.containsKey(start) || !adjacencyList.containsKey(end)) {
+            throw new IllegalArgumentException();
+        }
+        IDictionary<V, Double> costs = new ChainedHashDictionary<>();
+        IDictionary<V, E> previousEdges = new ChainedHashDictionary<>();
+        IDictionary<V, VertexEntry<V>> queued = new ChainedHashDictionary<>();
+        ISet<V> settled = new ChainedHashSet<>();
+        IPriorityQueue<VertexEntry<V>> queue = makeQueue(strategy);
+
+        VertexEntry<V> source = new VertexEntry<>(start, 0.0);
+        costs.put(start, 0.0);
+        queue.add(source);
+        queued.put(start, source);
+
+        while (!queue.isEmpty()) {
+            VertexEntry<V> minVertex = queue.removeMin();
+            queued.remove(minVertex.vertex);
+            settled.add(minVertex.vertex);
+            if (minVertex.vertex.equals(end)) {
+                break;
+            }
+            for (E edge : adjacencyList.get(minVertex.vertex)) {
+                V other = edge.getOtherVertex(minVertex.vertex);
+                if (settled.contains(other)) {
+                    continue;
+                }
+                if (strategy == QueueStrategy.RADIX_HEAP && edge.getWeight() != Math.rint(edge.getWeight())) {
+                    throw new IllegalArgumentException();
+                }
+                double newCost = minVertex.cost + edge.getWeight();
+                if (!costs.containsKey(other) || newCost < costs.get(other)) {
+                    costs.put(other, newCost);
+                    previousEdges.put(other, edge);
+                    VertexEntry<V> entry = new VertexEntry<>(other, newCost);
+                    if (queued.containsKey(other)) {
+                        queue.replace(queued.get(other), entry);
+                    } else {
+                        queue.add(entry);
                     }
+                    queued.put(other, entry);
                 }
-                checker.add(minVertex);
             }
         }
-        IList<E> shortestPath = new DoubleLinkedList<>();
-
-        ExampleComparableVertex<V,E> lastVertex = vertices.get(end);
-
-        while (lastVertex.preVer != null) {
-            shortestPath.insert(0,lastVertex.preEdge);
-            lastVertex = vertices.get(lastVertex.preVer);
+        if (!settled.contains(end)) {
+            throw new NoPathExistsException();
         }
 
-       return shortestPath;
+        IList<E> shortestPath = new DoubleLinkedList<>();
+        V current = end;
+        while (!current.equals(start)) {
+            E edge = previousEdges.get(current);
+            shortestPath.insert(0, edge);
+            current = edge.getOtherVertex(current);
+        }
+        return shortestPath;
     }
 }
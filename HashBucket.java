@@ -0,0 +1,49 @@
+package datastructures.concrete.dictionaries;
+
+import datastructures.interfaces.IDictionary;
+
+/**
+ * A ChainedHashDictionary bucket. The dictionary has already spread the key's
+ * hash to pick the bucket, so it calls the methods here that take that hash
+ * instead of having the bucket hash the key a second time. hash must always
+ * be Hashing.spread(key).
+ *
+ * Entries sit in slots 0 to size() - 1, which the dictionary reads directly
+ * when it rehashes or treeifies a bucket.
+ */
+abstract class HashBucket<K, V> implements IDictionary<K, V> {
+    abstract V get(K key, int hash);
+
+    abstract boolean containsKey(K key, int hash);
+
+    // Returns true if the key was not already present.
+    abstract boolean put(K key, int hash, V value);
+
+    abstract V remove(K key, int hash);
+
+    abstract K keyAt(int slot);
+
+    abstract V valueAt(int slot);
+
+    abstract int hashAt(int slot);
+
+    @Override
+    public V get(K key) {
+        return get(key, Hashing.spread(key));
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return containsKey(key, Hashing.spread(key));
+    }
+
+    @Override
+    public void put(K key, V value) {
+        put(key, Hashing.spread(key), value);
+    }
+
+    @Override
+    public V remove(K key) {
+        return remove(key, Hashing.spread(key));
+    }
+}
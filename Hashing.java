@@ -0,0 +1,43 @@
+package datastructures.concrete.dictionaries;
+
+final class Hashing {
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private Hashing() {
+    }
+
+    // murmur3 fmix32 finalizer: every input bit affects every output bit, so
+    // masking off the low bits is safe even for poorly distributed hashCodes
+    static int spread(Object key) {
+        int h = (key == null) ? 0 : key.hashCode();
+        return mix(h);
+    }
+
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    static int mix(long key) {
+        return mix((int) (key ^ (key >>> 32)));
+    }
+
+    static int tableSizeFor(int capacity) {
+        if (capacity >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        int n = 1;
+        while (n < capacity) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    static int tableSizeFor(int expectedSize, double lambda) {
+        return tableSizeFor((int) Math.min(MAX_CAPACITY, Math.ceil(expectedSize / lambda) + 1));
+    }
+}
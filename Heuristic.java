@@ -0,0 +1,13 @@
+package datastructures.concrete;
+
+/**
+ * Lower bound on the distance between two vertices, used to guide A* search.
+ *
+ * Estimates must never exceed the true distance and must be consistent: for
+ * every edge (u, v), estimate(u, target) <= weight(u, v) + estimate(v, target).
+ * Straight-line distance on a map with Euclidean edge lengths is the usual
+ * example.
+ */
+public interface Heuristic<V> {
+    double estimate(V vertex, V target);
+}
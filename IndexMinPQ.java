@@ -0,0 +1,208 @@
+package datastructures.concrete;
+
+import misc.exceptions.EmptyContainerException;
+import misc.exceptions.InvalidElementException;
+
+/**
+ * Min-priority queue over the int ids 0 to capacity - 1 with double priorities.
+ *
+ * The 4-ary heap of ids, each id's position in the heap and each id's key are
+ * kept in parallel primitive arrays allocated up front, so no operation
+ * allocates and decreaseKey does not need a hash lookup.
+ */
+public class IndexMinPQ {
+    private static final int SHIFT = 2;
+
+    private final int[] heap;
+    // positions[id] is the heap index of id, or -1 if id is not in the queue
+    private final int[] positions;
+    private final double[] keys;
+    private int size;
+
+    public IndexMinPQ(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new double[capacity];
+        this.size = 0;
+        for (int i = 0; i < capacity; i++) {
+            positions[i] = -1;
+        }
+    }
+
+    public int capacity() {
+        return heap.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= heap.length) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    public boolean contains(int id) {
+        checkId(id);
+        return positions[id] >= 0;
+    }
+
+    public void add(int id, double key) {
+        checkId(id);
+        if (Double.isNaN(key)) {
+            throw new IllegalArgumentException();
+        }
+        if (positions[id] >= 0) {
+            throw new InvalidElementException();
+        }
+        keys[id] = key;
+        size++;
+        percolateUp(size - 1, id);
+    }
+
+    public double keyOf(int id) {
+        checkId(id);
+        if (positions[id] < 0) {
+            throw new InvalidElementException();
+        }
+        return keys[id];
+    }
+
+    public int peekMin() {
+        if (size == 0) {
+            throw new EmptyContainerException();
+        }
+        return heap[0];
+    }
+
+    public double peekMinKey() {
+        if (size == 0) {
+            throw new EmptyContainerException();
+        }
+        return keys[heap[0]];
+    }
+
+    public int removeMin() {
+        if (size == 0) {
+            throw new EmptyContainerException();
+        }
+        int min = heap[0];
+        removeAt(0);
+        positions[min] = -1;
+        return min;
+    }
+
+    public void decreaseKey(int id, double key) {
+        checkId(id);
+        if (positions[id] < 0) {
+            throw new InvalidElementException();
+        }
+        if (Double.isNaN(key) || key > keys[id]) {
+            throw new IllegalArgumentException();
+        }
+        keys[id] = key;
+        percolateUp(positions[id], id);
+    }
+
+    public void changeKey(int id, double key) {
+        checkId(id);
+        if (positions[id] < 0) {
+            throw new InvalidElementException();
+        }
+        if (Double.isNaN(key)) {
+            throw new IllegalArgumentException();
+        }
+        double oldKey = keys[id];
+        keys[id] = key;
+        if (key < oldKey) {
+            percolateUp(positions[id], id);
+        } else {
+            percolateDown(positions[id], id);
+        }
+    }
+
+    public void remove(int id) {
+        checkId(id);
+        if (positions[id] < 0) {
+            throw new InvalidElementException();
+        }
+        removeAt(positions[id]);
+        positions[id] = -1;
+    }
+
+    /**
+     * Empties the queue in time proportional to its size, so one instance can
+     * be reused across many searches.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void removeAt(int index) {
+        size--;
+        int last = heap[size];
+        if (index != size) {
+            if (index > 0 && keys[last] < keys[heap[(index - 1) >> SHIFT]]) {
+                percolateUp(index, last);
+            } else {
+                percolateDown(index, last);
+            }
+        }
+    }
+
+    private void percolateUp(int index, int id) {
+        double key = keys[id];
+        while (index > 0) {
+            int parentIndex = (index - 1) >> SHIFT;
+            int parent = heap[parentIndex];
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[index] = parent;
+            positions[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = id;
+        positions[id] = index;
+    }
+
+    private void percolateDown(int index, int id) {
+        double key = keys[id];
+        while (true) {
+            int child = (index << SHIFT) + 1;
+            if (child >= size) {
+                break;
+            }
+            int lastChild = Math.min(child + (1 << SHIFT), size);
+            int smallestIndex = child;
+            double smallestKey = keys[heap[child]];
+            for (int i = child + 1; i < lastChild; i++) {
+                double childKey = keys[heap[i]];
+                if (childKey < smallestKey) {
+                    smallestKey = childKey;
+                    smallestIndex = i;
+                }
+            }
+            if (smallestKey >= key) {
+                break;
+            }
+            int smallest = heap[smallestIndex];
+            heap[index] = smallest;
+            positions[smallest] = index;
+            index = smallestIndex;
+        }
+        heap[index] = id;
+        positions[id] = index;
+    }
+}
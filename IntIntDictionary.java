@@ -0,0 +1,159 @@
+package datastructures.concrete.dictionaries;
+
+import misc.exceptions.NoSuchKeyException;
+
+/**
+ * Hash dictionary from primitive ints to primitive ints.
+ *
+ * Uses linear probing over parallel key and value arrays. A key of 0 marks an
+ * empty slot, so the entry for key 0 itself is kept in separate fields.
+ */
+public class IntIntDictionary {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double LAMBDA = 0.75;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int threshold;
+    private int size;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public IntIntDictionary() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntIntDictionary(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.size = 0;
+        this.hasZeroKey = false;
+        allocate(Math.max(DEFAULT_CAPACITY, Hashing.tableSizeFor(expectedSize, LAMBDA)));
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.threshold = (int) (capacity * LAMBDA);
+    }
+
+    private int indexOf(int key) {
+        int i = Hashing.mix(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -(i + 1);
+    }
+
+    public int get(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                throw new NoSuchKeyException();
+            }
+            return zeroValue;
+        }
+        int i = indexOf(key);
+        if (i < 0) {
+            throw new NoSuchKeyException();
+        }
+        return values[i];
+    }
+
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int i = indexOf(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    public void put(int key, int value) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int i = indexOf(key);
+        if (i >= 0) {
+            values[i] = value;
+            return;
+        }
+        if (size + 1 > threshold) {
+            resize(keys.length * 2);
+            i = indexOf(key);
+        }
+        i = -(i + 1);
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = Hashing.mix(oldKeys[j]) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    public int remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                throw new NoSuchKeyException();
+            }
+            hasZeroKey = false;
+            size--;
+            return zeroValue;
+        }
+        int i = indexOf(key);
+        if (i < 0) {
+            throw new NoSuchKeyException();
+        }
+        int value = values[i];
+        int next = (i + 1) & mask;
+        while (keys[next] != 0) {
+            int home = Hashing.mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - i) & mask)) {
+                keys[i] = keys[next];
+                values[i] = values[next];
+                i = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[i] = 0;
+        size--;
+        return value;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,226 @@
+package datastructures.concrete;
+
+import datastructures.interfaces.IList;
+import misc.exceptions.EmptyContainerException;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Growable array of ints that is also an IList of Integers.
+ *
+ * The IList methods box and unbox at the boundary and reject null. Hot code
+ * should use the *Int methods and intIterator, which never box.
+ */
+public class IntList implements IList<Integer> {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private int[] items;
+    private int size;
+
+    public IntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntList(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.items = new int[capacity];
+        this.size = 0;
+    }
+
+    public IntList(int[] values) {
+        this.items = Arrays.copyOf(values, values.length);
+        this.size = values.length;
+    }
+
+    public void addInt(int item) {
+        if (size == items.length) {
+            grow(size + 1);
+        }
+        items[size] = item;
+        size++;
+    }
+
+    public int removeInt() {
+        if (size == 0) {
+            throw new EmptyContainerException();
+        }
+        size--;
+        return items[size];
+    }
+
+    public int getInt(int index) {
+        checkIndex(index);
+        return items[index];
+    }
+
+    public void setInt(int index, int item) {
+        checkIndex(index);
+        items[index] = item;
+    }
+
+    public void insertInt(int index, int item) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (size == items.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(items, index, items, index + 1, size - index);
+        items[index] = item;
+        size++;
+    }
+
+    public int deleteInt(int index) {
+        checkIndex(index);
+        int item = items[index];
+        System.arraycopy(items, index + 1, items, index, size - index - 1);
+        size--;
+        return item;
+    }
+
+    public int indexOfInt(int item) {
+        for (int i = 0; i < size; i++) {
+            if (items[i] == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean containsInt(int item) {
+        return indexOfInt(item) >= 0;
+    }
+
+    public void addAll(int[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    public void addAll(int[] values, int from, int to) {
+        if (from < 0 || to > values.length || from > to) {
+            throw new IndexOutOfBoundsException();
+        }
+        int count = to - from;
+        if (size + count > items.length) {
+            grow(size + count);
+        }
+        System.arraycopy(values, from, items, size, count);
+        size += count;
+    }
+
+    public void addAll(IntList other) {
+        addAll(other.items, 0, other.size);
+    }
+
+    /**
+     * Sorts the items in ascending order.
+     */
+    public void sort() {
+        Arrays.sort(items, 0, size);
+    }
+
+    /**
+     * Removes every item but keeps the backing array for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(items, size);
+    }
+
+    public PrimitiveIterator.OfInt intIterator() {
+        return new IntListIterator();
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, items.length + (items.length >> 1) + 1);
+        items = Arrays.copyOf(items, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private static int unbox(Integer item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        return item;
+    }
+
+    @Override
+    public void add(Integer item) {
+        addInt(unbox(item));
+    }
+
+    @Override
+    public Integer remove() {
+        return removeInt();
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public void set(int index, Integer item) {
+        setInt(index, unbox(item));
+    }
+
+    @Override
+    public void insert(int index, Integer item) {
+        insertInt(index, unbox(item));
+    }
+
+    @Override
+    public Integer delete(int index) {
+        return deleteInt(index);
+    }
+
+    @Override
+    public int indexOf(Integer item) {
+        return item == null ? -1 : indexOfInt(item);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Integer other) {
+        return indexOf(other) >= 0;
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return intIterator();
+    }
+
+    private class IntListIterator implements PrimitiveIterator.OfInt {
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public int nextInt() {
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+            int item = items[index];
+            index++;
+            return item;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package datastructures.concrete;
+
+import datastructures.interfaces.IList;
+import misc.exceptions.EmptyContainerException;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Growable array of longs that is also an IList of Longs.
+ *
+ * The IList methods box and unbox at the boundary and reject null. Hot code
+ * should use the *Long methods and longIterator, which never box.
+ */
+public class LongList implements IList<Long> {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private long[] items;
+    private int size;
+
+    public LongList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongList(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.items = new long[capacity];
+        this.size = 0;
+    }
+
+    public LongList(long[] values) {
+        this.items = Arrays.copyOf(values, values.length);
+        this.size = values.length;
+    }
+
+    public void addLong(long item) {
+        if (size == items.length) {
+            grow(size + 1);
+        }
+        items[size] = item;
+        size++;
+    }
+
+    public long removeLong() {
+        if (size == 0) {
+            throw new EmptyContainerException();
+        }
+        size--;
+        return items[size];
+    }
+
+    public long getLong(int index) {
+        checkIndex(index);
+        return items[index];
+    }
+
+    public void setLong(int index, long item) {
+        checkIndex(index);
+        items[index] = item;
+    }
+
+    public void insertLong(int index, long item) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (size == items.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(items, index, items, index + 1, size - index);
+        items[index] = item;
+        size++;
+    }
+
+    public long deleteLong(int index) {
+        checkIndex(index);
+        long item = items[index];
+        System.arraycopy(items, index + 1, items, index, size - index - 1);
+        size--;
+        return item;
+    }
+
+    public int indexOfLong(long item) {
+        for (int i = 0; i < size; i++) {
+            if (items[i] == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean containsLong(long item) {
+        return indexOfLong(item) >= 0;
+    }
+
+    public void addAll(long[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    public void addAll(long[] values, int from, int to) {
+        if (from < 0 || to > values.length || from > to) {
+            throw new IndexOutOfBoundsException();
+        }
+        int count = to - from;
+        if (size + count > items.length) {
+            grow(size + count);
+        }
+        System.arraycopy(values, from, items, size, count);
+        size += count;
+    }
+
+    public void addAll(LongList other) {
+        addAll(other.items, 0, other.size);
+    }
+
+    /**
+     * Sorts the items in ascending order.
+     */
+    public void sort() {
+        Arrays.sort(items, 0, size);
+    }
+
+    /**
+     * Removes every item but keeps the backing array for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(items, size);
+    }
+
+    public PrimitiveIterator.OfLong longIterator() {
+        return new LongListIterator();
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, items.length + (items.length >> 1) + 1);
+        items = Arrays.copyOf(items, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private static long unbox(Long item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        return item;
+    }
+
+    @Override
+    public void add(Long item) {
+        addLong(unbox(item));
+    }
+
+    @Override
+    public Long remove() {
+        return removeLong();
+    }
+
+    @Override
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    @Override
+    public void set(int index, Long item) {
+        setLong(index, unbox(item));
+    }
+
+    @Override
+    public void insert(int index, Long item) {
+        insertLong(index, unbox(item));
+    }
+
+    @Override
+    public Long delete(int index) {
+        return deleteLong(index);
+    }
+
+    @Override
+    public int indexOf(Long item) {
+        return item == null ? -1 : indexOfLong(item);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Long other) {
+        return indexOf(other) >= 0;
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return longIterator();
+    }
+
+    private class LongListIterator implements PrimitiveIterator.OfLong {
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public long nextLong() {
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+            long item = items[index];
+            index++;
+            return item;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package datastructures.concrete.dictionaries;
+
+import misc.exceptions.NoSuchKeyException;
+
+/**
+ * Hash dictionary from primitive longs to objects.
+ *
+ * Uses linear probing over parallel key and value arrays. A key of 0 marks an
+ * empty slot, so the entry for key 0 itself is kept in separate fields.
+ */
+public class LongObjectDictionary<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double LAMBDA = 0.75;
+
+    private long[] keys;
+    private V[] values;
+    private int mask;
+    private int threshold;
+    private int size;
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    public LongObjectDictionary() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongObjectDictionary(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.size = 0;
+        this.hasZeroKey = false;
+        allocate(Math.max(DEFAULT_CAPACITY, Hashing.tableSizeFor(expectedSize, LAMBDA)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = (V[]) new Object[capacity];
+        this.mask = capacity - 1;
+        this.threshold = (int) (capacity * LAMBDA);
+    }
+
+    private int indexOf(long key) {
+        int i = Hashing.mix(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -(i + 1);
+    }
+
+    public V get(long key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                throw new NoSuchKeyException();
+            }
+            return zeroValue;
+        }
+        int i = indexOf(key);
+        if (i < 0) {
+            throw new NoSuchKeyException();
+        }
+        return values[i];
+    }
+
+    public V getOrDefault(long key, V defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int i = indexOf(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    public void put(long key, V value) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int i = indexOf(key);
+        if (i >= 0) {
+            values[i] = value;
+            return;
+        }
+        if (size + 1 > threshold) {
+            resize(keys.length * 2);
+            i = indexOf(key);
+        }
+        i = -(i + 1);
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        V[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = Hashing.mix(oldKeys[j]) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    public V remove(long key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                throw new NoSuchKeyException();
+            }
+            V value = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            size--;
+            return value;
+        }
+        int i = indexOf(key);
+        if (i < 0) {
+            throw new NoSuchKeyException();
+        }
+        V value = values[i];
+        int next = (i + 1) & mask;
+        while (keys[next] != 0) {
+            int home = Hashing.mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - i) & mask)) {
+                keys[i] = keys[next];
+                values[i] = values[next];
+                i = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[i] = 0;
+        values[i] = null;
+        size--;
+        return value;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,95 @@
+package datastructures.concrete;
+
+import datastructures.concrete.dictionaries.ChainedHashDictionary;
+import datastructures.interfaces.IDictionary;
+
+/**
+ * Bounded map that evicts its least recently used entry when full. Entries
+ * sit on a circular list behind a sentinel, most recently used first. This
+ * class is not thread-safe.
+ */
+final class LruCache<K, V> {
+    private final int capacity;
+    private final IDictionary<K, Node<K, V>> nodes;
+    private final Node<K, V> sentinel;
+
+    public LruCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.capacity = capacity;
+        this.nodes = new ChainedHashDictionary<>();
+        this.sentinel = new Node<>(null, null);
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+    }
+
+    // Returns the value for key and marks it most recently used, or null if
+    // the key is not cached.
+    public V get(K key) {
+        if (!nodes.containsKey(key)) {
+            return null;
+        }
+        Node<K, V> node = nodes.get(key);
+        unlink(node);
+        linkFirst(node);
+        return node.value;
+    }
+
+    public void put(K key, V value) {
+        if (nodes.containsKey(key)) {
+            Node<K, V> node = nodes.get(key);
+            node.value = value;
+            unlink(node);
+            linkFirst(node);
+            return;
+        }
+        Node<K, V> node = new Node<>(key, value);
+        nodes.put(key, node);
+        linkFirst(node);
+        if (nodes.size() > capacity) {
+            Node<K, V> eldest = sentinel.prev;
+            unlink(eldest);
+            nodes.remove(eldest.key);
+        }
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public void clear() {
+        Node<K, V> current = sentinel.next;
+        while (current != sentinel) {
+            Node<K, V> next = current.next;
+            nodes.remove(current.key);
+            current = next;
+        }
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+    }
+
+    private void linkFirst(Node<K, V> node) {
+        node.prev = sentinel;
+        node.next = sentinel.next;
+        sentinel.next.prev = node;
+        sentinel.next = node;
+    }
+
+    private static <K, V> void unlink(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+    }
+
+    private static class Node<K, V> {
+        private final K key;
+        private V value;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        public Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,494 @@
+package datastructures.concrete.dictionaries;
+
+import datastructures.interfaces.IDictionary;
+import misc.exceptions.NoSuchKeyException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent hash dictionary whose entries live in memory-mapped files rather
+ * than on the Java heap.
+ *
+ * Every put and remove appends a checksummed record to "name.dat", and an
+ * open-addressing table in "name.idx" maps each live key to its newest record.
+ * Lookups hash the serialized key and compare it against the mapped bytes, so
+ * only the returned value is materialized on the heap.
+ *
+ * close() marks the files clean, which lets the next open reuse the index as
+ * is. If the process dies without closing, the next open replays the log up to
+ * the first torn or corrupt record and rebuilds the index from it. flush()
+ * forces both files to disk without closing.
+ *
+ * Not thread-safe. Space from overwritten and removed records is not reclaimed.
+ */
+public class MappedHashDictionary<K, V> implements IDictionary<K, V>, Closeable {
+    private static final long DATA_MAGIC = 0x4d48445f44415441L;
+    private static final long INDEX_MAGIC = 0x4d48445f49445831L;
+    private static final int VERSION = 1;
+
+    // data header: magic, version, clean flag, end of log, live entry count
+    private static final long VERSION_OFFSET = 8;
+    private static final long CLEAN_OFFSET = 12;
+    private static final long END_OFFSET = 16;
+    private static final long SIZE_OFFSET = 24;
+    private static final long DATA_HEADER = 64;
+
+    // record: crc, key length, value length, type, key bytes, value bytes
+    private static final int RECORD_HEADER = 13;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte PAD = 3;
+
+    // index header: magic, capacity, end of log the index was written for
+    private static final long INDEX_HEADER = 64;
+    private static final long SLOT_SIZE = 16;
+    private static final double LAMBDA = 0.7;
+    private static final long INITIAL_SLOTS = 1024;
+    private static final long INITIAL_DATA = 1 << 20;
+
+    private final Path dataPath;
+    private final Path indexPath;
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final CRC32 crc;
+    private MappedRegion data;
+    private MappedRegion index;
+    private long slots;
+    private long dataEnd;
+    private int size;
+    private boolean open;
+
+    public MappedHashDictionary(Path path, Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+        if (path == null || keySerializer == null || valueSerializer == null) {
+            throw new IllegalArgumentException();
+        }
+        this.dataPath = Paths.get(path.toString() + ".dat");
+        this.indexPath = Paths.get(path.toString() + ".idx");
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.crc = new CRC32();
+        try {
+            openFiles();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.open = true;
+    }
+
+    private void openFiles() throws IOException {
+        data = new MappedRegion(dataPath, DATA_HEADER + INITIAL_DATA);
+        if (data.getLong(0) != DATA_MAGIC) {
+            data.putLong(0, DATA_MAGIC);
+            data.putInt(VERSION_OFFSET, VERSION);
+            dataEnd = DATA_HEADER;
+            size = 0;
+            createIndex(INITIAL_SLOTS);
+        } else {
+            if (data.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Unsupported dictionary file version: " + dataPath);
+            }
+            dataEnd = data.getLong(END_OFFSET);
+            size = (int) data.getLong(SIZE_OFFSET);
+            boolean clean = data.getInt(CLEAN_OFFSET) == 1;
+            if (!clean || !openIndex()) {
+                rebuildIndex();
+            }
+        }
+        data.putInt(CLEAN_OFFSET, 0);
+        writeHeader();
+        data.force();
+    }
+
+    private boolean openIndex() throws IOException {
+        if (!Files.exists(indexPath)) {
+            return false;
+        }
+        index = new MappedRegion(indexPath, INDEX_HEADER);
+        slots = index.getLong(8);
+        if (index.getLong(0) != INDEX_MAGIC || index.getLong(16) != dataEnd
+                || index.capacity() < INDEX_HEADER + slots * SLOT_SIZE) {
+            index.close();
+            return false;
+        }
+        return true;
+    }
+
+    private void createIndex(long capacity) throws IOException {
+        if (index != null) {
+            index.close();
+        }
+        Files.deleteIfExists(indexPath);
+        index = new MappedRegion(indexPath, INDEX_HEADER + capacity * SLOT_SIZE);
+        index.putLong(0, INDEX_MAGIC);
+        index.putLong(8, capacity);
+        slots = capacity;
+    }
+
+    // Replays the log, stopping at the first record that is torn or corrupt,
+    // and zeroes everything after it so later appends cannot be confused with
+    // stale records on the next replay.
+    private void rebuildIndex() throws IOException {
+        createIndex(INITIAL_SLOTS);
+        size = 0;
+        long pos = DATA_HEADER;
+        while (true) {
+            if (MappedRegion.segmentRemaining(pos) < RECORD_HEADER) {
+                pos += MappedRegion.segmentRemaining(pos);
+            }
+            if (pos + RECORD_HEADER > data.capacity()) {
+                break;
+            }
+            byte type = data.getByte(pos + 12);
+            int keyLength = data.getInt(pos + 4);
+            int valueLength = data.getInt(pos + 8);
+            long length = recordLength(keyLength, valueLength);
+            if ((type != PUT && type != DELETE && type != PAD) || keyLength < -1 || valueLength < -1
+                    || length > MappedRegion.segmentRemaining(pos) || pos + length > data.capacity()
+                    || data.getInt(pos) != checksum(pos, keyLength, valueLength, type)) {
+                break;
+            }
+            if (type == PAD) {
+                pos += MappedRegion.segmentRemaining(pos);
+                continue;
+            }
+            byte[] keyBytes = readBytes(pos + RECORD_HEADER, keyLength);
+            long slot = find(keyBytes, hashBytes(keyBytes));
+            if (type == PUT) {
+                if (slot >= 0) {
+                    index.putLong(slotPosition(slot), pos + 1);
+                } else {
+                    insertSlot(keyBytes, -(slot + 1), pos);
+                }
+            } else if (slot >= 0) {
+                deleteSlot(slot);
+            }
+            pos += length;
+        }
+        dataEnd = pos;
+        data.zero(dataEnd, data.capacity());
+    }
+
+    private static long recordLength(int keyLength, int valueLength) {
+        return (long) RECORD_HEADER + Math.max(0, keyLength) + Math.max(0, valueLength);
+    }
+
+    private int checksum(long pos, int keyLength, int valueLength, byte type) {
+        crc.reset();
+        updateInt(keyLength);
+        updateInt(valueLength);
+        crc.update(type);
+        long end = pos + recordLength(keyLength, valueLength);
+        for (long p = pos + RECORD_HEADER; p < end; p++) {
+            crc.update(data.getByte(p));
+        }
+        return (int) crc.getValue();
+    }
+
+    private void updateInt(int value) {
+        crc.update(value >>> 24);
+        crc.update(value >>> 16);
+        crc.update(value >>> 8);
+        crc.update(value);
+    }
+
+    private byte[] readBytes(long pos, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        data.getBytes(pos, bytes);
+        return bytes;
+    }
+
+    private long append(byte type, byte[] keyBytes, byte[] valueBytes) throws IOException {
+        int keyLength = keyBytes == null ? -1 : keyBytes.length;
+        int valueLength = valueBytes == null ? -1 : valueBytes.length;
+        long length = recordLength(keyLength, valueLength);
+        if (length > MappedRegion.SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Entry too large");
+        }
+        long pos = dataEnd;
+        long remaining = MappedRegion.segmentRemaining(pos);
+        if (remaining < length) {
+            if (remaining >= RECORD_HEADER) {
+                data.ensureCapacity(pos + RECORD_HEADER);
+                writeRecord(pos, PAD, null, null);
+            }
+            pos += remaining;
+        }
+        data.ensureCapacity(pos + length);
+        writeRecord(pos, type, keyBytes, valueBytes);
+        dataEnd = pos + length;
+        return pos;
+    }
+
+    // The checksum is written last, so a record torn by a crash fails validation.
+    private void writeRecord(long pos, byte type, byte[] keyBytes, byte[] valueBytes) {
+        int keyLength = keyBytes == null ? -1 : keyBytes.length;
+        int valueLength = valueBytes == null ? -1 : valueBytes.length;
+        data.putInt(pos + 4, keyLength);
+        data.putInt(pos + 8, valueLength);
+        data.putByte(pos + 12, type);
+        if (keyBytes != null) {
+            data.putBytes(pos + RECORD_HEADER, keyBytes);
+        }
+        if (valueBytes != null) {
+            data.putBytes(pos + RECORD_HEADER + Math.max(0, keyLength), valueBytes);
+        }
+        data.putInt(pos, checksum(pos, keyLength, valueLength, type));
+    }
+
+    private void writeHeader() {
+        data.putLong(END_OFFSET, dataEnd);
+        data.putLong(SIZE_OFFSET, size);
+    }
+
+    private static int hashBytes(byte[] bytes) {
+        if (bytes == null) {
+            return 0;
+        }
+        int h = 0x811c9dc5;
+        for (byte b : bytes) {
+            h ^= b;
+            h *= 0x01000193;
+        }
+        return Hashing.mix(h);
+    }
+
+    private static long slotPosition(long slot) {
+        return INDEX_HEADER + slot * SLOT_SIZE;
+    }
+
+    // Returns the slot holding keyBytes, or -(emptySlot + 1) if it is absent.
+    private long find(byte[] keyBytes, int hash) {
+        long mask = slots - 1;
+        long slot = hash & mask;
+        while (true) {
+            long pos = slotPosition(slot);
+            long record = index.getLong(pos);
+            if (record == 0) {
+                return -(slot + 1);
+            }
+            if (index.getInt(pos + 8) == hash && keyEquals(record - 1, keyBytes)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean keyEquals(long record, byte[] keyBytes) {
+        int keyLength = data.getInt(record + 4);
+        if (keyBytes == null || keyLength < 0) {
+            return keyBytes == null && keyLength < 0;
+        }
+        if (keyLength != keyBytes.length) {
+            return false;
+        }
+        long pos = record + RECORD_HEADER;
+        for (int i = 0; i < keyLength; i++) {
+            if (data.getByte(pos + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void insertSlot(byte[] keyBytes, long slot, long record) throws IOException {
+        if (size + 1 > slots * LAMBDA) {
+            growIndex();
+            slot = -(find(keyBytes, hashBytes(keyBytes)) + 1);
+        }
+        long pos = slotPosition(slot);
+        index.putLong(pos, record + 1);
+        index.putInt(pos + 8, hashBytes(keyBytes));
+        size++;
+    }
+
+    private void deleteSlot(long slot) {
+        long mask = slots - 1;
+        long next = (slot + 1) & mask;
+        while (index.getLong(slotPosition(next)) != 0) {
+            int hash = index.getInt(slotPosition(next) + 8);
+            long home = hash & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                index.putLong(slotPosition(slot), index.getLong(slotPosition(next)));
+                index.putInt(slotPosition(slot) + 8, hash);
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        index.putLong(slotPosition(slot), 0);
+        index.putInt(slotPosition(slot) + 8, 0);
+        size--;
+    }
+
+    // Rehashes into a new file and swaps it in with an atomic rename.
+    private void growIndex() throws IOException {
+        long newSlots = slots * 2;
+        long newMask = newSlots - 1;
+        Path tempPath = Paths.get(indexPath.toString() + ".tmp");
+        Files.deleteIfExists(tempPath);
+        MappedRegion newIndex = new MappedRegion(tempPath, INDEX_HEADER + newSlots * SLOT_SIZE);
+        newIndex.putLong(0, INDEX_MAGIC);
+        newIndex.putLong(8, newSlots);
+        for (long slot = 0; slot < slots; slot++) {
+            long record = index.getLong(slotPosition(slot));
+            if (record != 0) {
+                int hash = index.getInt(slotPosition(slot) + 8);
+                long target = hash & newMask;
+                while (newIndex.getLong(slotPosition(target)) != 0) {
+                    target = (target + 1) & newMask;
+                }
+                newIndex.putLong(slotPosition(target), record);
+                newIndex.putInt(slotPosition(target) + 8, hash);
+            }
+        }
+        index.close();
+        Files.move(tempPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        index = newIndex;
+        slots = newSlots;
+    }
+
+    private void checkOpen() {
+        if (!open) {
+            throw new IllegalStateException("Dictionary is closed");
+        }
+    }
+
+    private byte[] serializeKey(K key) {
+        return key == null ? null : keySerializer.serialize(key);
+    }
+
+    private V readValue(long record) {
+        int keyLength = data.getInt(record + 4);
+        byte[] bytes = readBytes(record + RECORD_HEADER + Math.max(0, keyLength), data.getInt(record + 8));
+        return bytes == null ? null : valueSerializer.deserialize(bytes);
+    }
+
+    private K readKey(long record) {
+        byte[] bytes = readBytes(record + RECORD_HEADER, data.getInt(record + 4));
+        return bytes == null ? null : keySerializer.deserialize(bytes);
+    }
+
+    @Override
+    public V get(K key) {
+        checkOpen();
+        byte[] keyBytes = serializeKey(key);
+        long slot = find(keyBytes, hashBytes(keyBytes));
+        if (slot < 0) {
+            throw new NoSuchKeyException();
+        }
+        return readValue(index.getLong(slotPosition(slot)) - 1);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        checkOpen();
+        byte[] keyBytes = serializeKey(key);
+        byte[] valueBytes = value == null ? null : valueSerializer.serialize(value);
+        try {
+            long slot = find(keyBytes, hashBytes(keyBytes));
+            long record = append(PUT, keyBytes, valueBytes);
+            if (slot >= 0) {
+                index.putLong(slotPosition(slot), record + 1);
+            } else {
+                insertSlot(keyBytes, -(slot + 1), record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writeHeader();
+    }
+
+    @Override
+    public V remove(K key) {
+        checkOpen();
+        byte[] keyBytes = serializeKey(key);
+        long slot = find(keyBytes, hashBytes(keyBytes));
+        if (slot < 0) {
+            throw new NoSuchKeyException();
+        }
+        V value = readValue(index.getLong(slotPosition(slot)) - 1);
+        try {
+            append(DELETE, keyBytes, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        deleteSlot(slot);
+        writeHeader();
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        checkOpen();
+        byte[] keyBytes = serializeKey(key);
+        return find(keyBytes, hashBytes(keyBytes)) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Forces all appended records and the index to disk. The files stay marked
+     * dirty, so a crash after this point still replays the log on reopen.
+     */
+    public void flush() {
+        checkOpen();
+        writeHeader();
+        data.force();
+        index.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+        writeHeader();
+        index.putLong(16, dataEnd);
+        index.close();
+        data.force();
+        data.putInt(CLEAN_OFFSET, 1);
+        data.close();
+    }
+
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        checkOpen();
+        return new MappedIterator();
+    }
+
+    private class MappedIterator implements Iterator<KVPair<K, V>> {
+        private long slot = 0;
+
+        @Override
+        public boolean hasNext() {
+            while (slot < slots && index.getLong(slotPosition(slot)) == 0) {
+                slot++;
+            }
+            return slot < slots;
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long record = index.getLong(slotPosition(slot)) - 1;
+            slot++;
+            return new KVPair<>(readKey(record), readValue(record));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package datastructures.concrete.dictionaries;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A file mapped into memory as a list of fixed-size segments, so it can grow
+ * past the 2GB limit of a single MappedByteBuffer. Callers must not let a
+ * multi-byte read or write straddle a segment boundary.
+ */
+class MappedRegion implements Closeable {
+    static final int SEGMENT_BITS = 30;
+    static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final FileChannel channel;
+    private MappedByteBuffer[] segments;
+    private long capacity;
+
+    MappedRegion(Path path, long initialSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.segments = new MappedByteBuffer[0];
+        this.capacity = 0;
+        ensureCapacity(Math.max(channel.size(), initialSize));
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    // Grows the mapping to at least size bytes, at least doubling it.
+    void ensureCapacity(long size) throws IOException {
+        if (size <= capacity) {
+            return;
+        }
+        long newCapacity = Math.max(size, capacity * 2);
+        int count = (int) ((newCapacity + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+        MappedByteBuffer[] newSegments = Arrays.copyOf(segments, count);
+        for (int i = Math.max(0, segments.length - 1); i < count; i++) {
+            long start = (long) i << SEGMENT_BITS;
+            long length = Math.min(SEGMENT_SIZE, newCapacity - start);
+            newSegments[i] = channel.map(FileChannel.MapMode.READ_WRITE, start, length);
+        }
+        segments = newSegments;
+        capacity = newCapacity;
+    }
+
+    static long segmentRemaining(long pos) {
+        return SEGMENT_SIZE - (pos & SEGMENT_MASK);
+    }
+
+    private MappedByteBuffer segment(long pos) {
+        return segments[(int) (pos >>> SEGMENT_BITS)];
+    }
+
+    byte getByte(long pos) {
+        return segment(pos).get((int) (pos & SEGMENT_MASK));
+    }
+
+    void putByte(long pos, byte value) {
+        segment(pos).put((int) (pos & SEGMENT_MASK), value);
+    }
+
+    int getInt(long pos) {
+        return segment(pos).getInt((int) (pos & SEGMENT_MASK));
+    }
+
+    void putInt(long pos, int value) {
+        segment(pos).putInt((int) (pos & SEGMENT_MASK), value);
+    }
+
+    long getLong(long pos) {
+        return segment(pos).getLong((int) (pos & SEGMENT_MASK));
+    }
+
+    void putLong(long pos, long value) {
+        segment(pos).putLong((int) (pos & SEGMENT_MASK), value);
+    }
+
+    void getBytes(long pos, byte[] dst) {
+        ByteBuffer view = segment(pos).duplicate();
+        view.position((int) (pos & SEGMENT_MASK));
+        view.get(dst);
+    }
+
+    void putBytes(long pos, byte[] src) {
+        ByteBuffer view = segment(pos).duplicate();
+        view.position((int) (pos & SEGMENT_MASK));
+        view.put(src);
+    }
+
+    void zero(long from, long to) {
+        byte[] zeros = new byte[64 * 1024];
+        while (from < to) {
+            int length = (int) Math.min(zeros.length, Math.min(to - from, segmentRemaining(from)));
+            ByteBuffer view = segment(from).duplicate();
+            view.position((int) (from & SEGMENT_MASK));
+            view.put(zeros, 0, length);
+            from += length;
+        }
+    }
+
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
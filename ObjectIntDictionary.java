@@ -0,0 +1,176 @@
+package datastructures.concrete.dictionaries;
+
+import misc.exceptions.NoSuchKeyException;
+
+/**
+ * Hash dictionary from objects to primitive ints.
+ *
+ * Uses linear probing over parallel key, value and cached-hash arrays, so
+ * entries need no Pair objects and values are never boxed. A cached hash of 0
+ * marks an empty slot, and removal shifts the rest of the cluster back.
+ */
+public class ObjectIntDictionary<K> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double LAMBDA = 0.75;
+
+    private K[] keys;
+    private int[] values;
+    private int[] hashes;
+    private int mask;
+    private int threshold;
+    private int size;
+
+    public ObjectIntDictionary() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ObjectIntDictionary(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.size = 0;
+        allocate(Math.max(DEFAULT_CAPACITY, Hashing.tableSizeFor(expectedSize, LAMBDA)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        this.keys = (K[]) new Object[capacity];
+        this.values = new int[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+        this.threshold = (int) (capacity * LAMBDA);
+    }
+
+    /**
+     * Grows the table so that it can hold expectedSize entries without
+     * resizing again.
+     */
+    public void ensureCapacity(int expectedSize) {
+        int capacity = Hashing.tableSizeFor(expectedSize, LAMBDA);
+        if (capacity > hashes.length) {
+            resize(capacity);
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = Hashing.spread(key);
+        return h == 0 ? 1 : h;
+    }
+
+    private int indexOf(K key, int h) {
+        int i = h & mask;
+        while (hashes[i] != 0) {
+            if (hashes[i] == h && (keys[i] == key || (key != null && key.equals(keys[i])))) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -(i + 1);
+    }
+
+    public int get(K key) {
+        int i = indexOf(key, hash(key));
+        if (i < 0) {
+            throw new NoSuchKeyException();
+        }
+        return values[i];
+    }
+
+    public int getOrDefault(K key, int defaultValue) {
+        int i = indexOf(key, hash(key));
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    public void put(K key, int value) {
+        int h = hash(key);
+        int i = indexOf(key, h);
+        if (i >= 0) {
+            values[i] = value;
+            return;
+        }
+        if (size + 1 > threshold) {
+            resize(hashes.length * 2);
+            i = indexOf(key, h);
+        }
+        i = -(i + 1);
+        hashes[i] = h;
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    /**
+     * Maps key to value unless key is already present, with a single probe.
+     * Returns true if the key was added.
+     */
+    public boolean putIfAbsent(K key, int value) {
+        int h = hash(key);
+        int i = indexOf(key, h);
+        if (i >= 0) {
+            return false;
+        }
+        if (size + 1 > threshold) {
+            resize(hashes.length * 2);
+            i = indexOf(key, h);
+        }
+        i = -(i + 1);
+        hashes[i] = h;
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        return true;
+    }
+
+    private void resize(int capacity) {
+        K[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(capacity);
+        for (int j = 0; j < oldHashes.length; j++) {
+            if (oldHashes[j] != 0) {
+                int i = oldHashes[j] & mask;
+                while (hashes[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                hashes[i] = oldHashes[j];
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    public int remove(K key) {
+        int i = indexOf(key, hash(key));
+        if (i < 0) {
+            throw new NoSuchKeyException();
+        }
+        int value = values[i];
+        int next = (i + 1) & mask;
+        while (hashes[next] != 0) {
+            int home = hashes[next] & mask;
+            if (((next - home) & mask) >= ((next - i) & mask)) {
+                hashes[i] = hashes[next];
+                keys[i] = keys[next];
+                values[i] = values[next];
+                i = next;
+            }
+            next = (next + 1) & mask;
+        }
+        hashes[i] = 0;
+        keys[i] = null;
+        size--;
+        return value;
+    }
+
+    public boolean containsKey(K key) {
+        return indexOf(key, hash(key)) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
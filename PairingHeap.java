@@ -0,0 +1,205 @@
+package datastructures.concrete;
+
+import datastructures.concrete.dictionaries.ChainedHashDictionary;
+import datastructures.interfaces.IDictionary;
+import datastructures.interfaces.IPriorityQueue;
+import misc.exceptions.EmptyContainerException;
+import misc.exceptions.InvalidElementException;
+
+/**
+ * Pairing heap: add and decrease-key (replace with a smaller item) are O(1)
+ * amortized, and removeMin is O(log n) amortized.
+ */
+public class PairingHeap<T extends Comparable<T>> implements IPriorityQueue<T> {
+    private Node<T> root;
+    private int size;
+    private IDictionary<T, Node<T>> nodes;
+
+    public PairingHeap() {
+        this.root = null;
+        this.size = 0;
+        this.nodes = new ChainedHashDictionary<>();
+    }
+
+    @Override
+    public T removeMin() {
+        if (size == 0) {
+            throw new EmptyContainerException();
+        }
+        T min = root.item;
+        nodes.remove(min);
+        root = mergePairs(root.child);
+        if (root != null) {
+            root.prev = null;
+        }
+        size--;
+        return min;
+    }
+
+    @Override
+    public T peekMin() {
+        if (size == 0) {
+            throw new EmptyContainerException();
+        }
+        return root.item;
+    }
+
+    @Override
+    public void add(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        if (nodes.containsKey(item)) {
+            throw new InvalidElementException();
+        }
+        Node<T> node = new Node<>(item);
+        nodes.put(item, node);
+        root = meld(root, node);
+        size++;
+    }
+
+    @Override
+    public boolean contains(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        return nodes.containsKey(item);
+    }
+
+    @Override
+    public void remove(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        if (!nodes.containsKey(item)) {
+            throw new InvalidElementException();
+        }
+        Node<T> node = nodes.remove(item);
+        if (node == root) {
+            root = mergePairs(root.child);
+            if (root != null) {
+                root.prev = null;
+            }
+        } else {
+            cut(node);
+            Node<T> children = mergePairs(node.child);
+            if (children != null) {
+                children.prev = null;
+            }
+            root = meld(root, children);
+        }
+        size--;
+    }
+
+    @Override
+    public void replace(T oldItem, T newItem) {
+        if (newItem == null) {
+            throw new IllegalArgumentException();
+        }
+        if (!nodes.containsKey(oldItem) || nodes.containsKey(newItem)) {
+            throw new InvalidElementException();
+        }
+        if (newItem.compareTo(oldItem) <= 0) {
+            Node<T> node = nodes.remove(oldItem);
+            node.item = newItem;
+            nodes.put(newItem, node);
+            if (node != root) {
+                cut(node);
+                root = meld(root, node);
+            }
+        } else {
+            remove(oldItem);
+            add(newItem);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Detaches a non-root node, along with its subtree, from its parent.
+    private void cut(Node<T> node) {
+        if (node.prev.child == node) {
+            node.prev.child = node.sibling;
+        } else {
+            node.prev.sibling = node.sibling;
+        }
+        if (node.sibling != null) {
+            node.sibling.prev = node.prev;
+        }
+        node.prev = null;
+        node.sibling = null;
+    }
+
+    private Node<T> meld(Node<T> a, Node<T> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (b.item.compareTo(a.item) < 0) {
+            Node<T> temp = a;
+            a = b;
+            b = temp;
+        }
+        b.prev = a;
+        b.sibling = a.child;
+        if (a.child != null) {
+            a.child.prev = b;
+        }
+        a.child = b;
+        a.sibling = null;
+        a.prev = null;
+        return a;
+    }
+
+    // Standard two-pass merge, done iteratively so long sibling lists cannot
+    // overflow the stack: meld siblings in pairs left to right, then meld the
+    // results right to left.
+    private Node<T> mergePairs(Node<T> first) {
+        if (first == null) {
+            return null;
+        }
+        Node<T> pairs = null;
+        Node<T> current = first;
+        while (current != null) {
+            Node<T> a = current;
+            Node<T> b = current.sibling;
+            current = b == null ? null : b.sibling;
+            a.sibling = null;
+            a.prev = null;
+            if (b != null) {
+                b.sibling = null;
+                b.prev = null;
+            }
+            Node<T> merged = meld(a, b);
+            merged.sibling = pairs;
+            pairs = merged;
+        }
+        Node<T> result = null;
+        while (pairs != null) {
+            Node<T> next = pairs.sibling;
+            pairs.sibling = null;
+            result = meld(result, pairs);
+            pairs = next;
+        }
+        return result;
+    }
+
+    private static class Node<T> {
+        public T item;
+        public Node<T> child;
+        public Node<T> sibling;
+        // parent if this is the leftmost child, otherwise the left sibling
+        public Node<T> prev;
+
+        public Node(T item) {
+            this.item = item;
+            this.child = null;
+            this.sibling = null;
+            this.prev = null;
+        }
+    }
+}
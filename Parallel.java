@@ -0,0 +1,46 @@
+package datastructures.concrete;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+final class Parallel {
+    private Parallel() {
+    }
+
+    // Runs body for every index in [from, to) on the pool, splitting the range
+    // in halves until a piece has at most grain indices.
+    static void forRange(ForkJoinPool pool, int from, int to, int grain, IntConsumer body) {
+        if (from < to) {
+            pool.invoke(new RangeAction(from, to, Math.max(1, grain), body));
+        }
+    }
+
+    private static class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final IntConsumer body;
+
+        public RangeAction(int from, int to, int grain, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RangeAction(from, mid, grain, body), new RangeAction(mid, to, grain, body));
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package datastructures.concrete;
+
+import datastructures.concrete.dictionaries.ObjectIntDictionary;
+import datastructures.interfaces.IPriorityQueue;
+import misc.exceptions.EmptyContainerException;
+import misc.exceptions.InvalidElementException;
+import java.util.function.ToLongFunction;
+
+/**
+ * Radix heap for monotone, non-negative integer priorities, such as Dijkstra
+ * distances over integer edge weights.
+ *
+ * Priorities come from the key function, which must agree with compareTo. An
+ * item may not be added with a key smaller than the last key removed. Bucket
+ * b holds the items whose key first differs from that last key at bit b - 1,
+ * so each item moves to a lower bucket at most 64 times over its lifetime.
+ */
+public class RadixHeap<T extends Comparable<T>> implements IPriorityQueue<T> {
+    private static final int NUM_BUCKETS = 65;
+
+    private final ToLongFunction<? super T> keyFunction;
+    private T[][] items;
+    private long[][] keys;
+    private int[] bucketSizes;
+    // slot of each item within its bucket; the bucket follows from its key
+    private ObjectIntDictionary<T> slots;
+    private long last;
+    private int size;
+
+    public RadixHeap(ToLongFunction<? super T> keyFunction) {
+        if (keyFunction == null) {
+            throw new IllegalArgumentException();
+        }
+        this.keyFunction = keyFunction;
+        this.items = makeArrayOfBuckets();
+        this.keys = new long[NUM_BUCKETS][];
+        this.bucketSizes = new int[NUM_BUCKETS];
+        this.slots = new ObjectIntDictionary<>();
+        this.last = 0;
+        this.size = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            items[i] = makeArrayOfT(4);
+            keys[i] = new long[4];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[][] makeArrayOfBuckets() {
+        return (T[][]) new Comparable[NUM_BUCKETS][];
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] makeArrayOfT(int arraySize) {
+        return (T[]) (new Comparable[arraySize]);
+    }
+
+    private int bucketFor(long key) {
+        long diff = key ^ last;
+        return diff == 0 ? 0 : 64 - Long.numberOfLeadingZeros(diff);
+    }
+
+    private void push(int bucket, T item, long key) {
+        int count = bucketSizes[bucket];
+        if (count == items[bucket].length) {
+            T[] newItems = makeArrayOfT(count * 2);
+            long[] newKeys = new long[count * 2];
+            System.arraycopy(items[bucket], 0, newItems, 0, count);
+            System.arraycopy(keys[bucket], 0, newKeys, 0, count);
+            items[bucket] = newItems;
+            keys[bucket] = newKeys;
+        }
+        items[bucket][count] = item;
+        keys[bucket][count] = key;
+        slots.put(item, count);
+        bucketSizes[bucket] = count + 1;
+    }
+
+    private void removeAt(int bucket, int slot) {
+        int count = bucketSizes[bucket] - 1;
+        T moved = items[bucket][count];
+        items[bucket][slot] = moved;
+        keys[bucket][slot] = keys[bucket][count];
+        items[bucket][count] = null;
+        bucketSizes[bucket] = count;
+        if (slot != count) {
+            slots.put(moved, slot);
+        }
+    }
+
+    // Makes bucket 0 non-empty by advancing last to the smallest key in the
+    // first non-empty bucket and redistributing that bucket.
+    private void prepareMin() {
+        if (bucketSizes[0] > 0) {
+            return;
+        }
+        int bucket = 1;
+        while (bucketSizes[bucket] == 0) {
+            bucket++;
+        }
+        T[] bucketItems = items[bucket];
+        long[] bucketKeys = keys[bucket];
+        int count = bucketSizes[bucket];
+        long min = bucketKeys[0];
+        for (int i = 1; i < count; i++) {
+            min = Math.min(min, bucketKeys[i]);
+        }
+        last = min;
+        items[bucket] = makeArrayOfT(bucketItems.length);
+        keys[bucket] = new long[bucketKeys.length];
+        bucketSizes[bucket] = 0;
+        for (int i = 0; i < count; i++) {
+            push(bucketFor(bucketKeys[i]), bucketItems[i], bucketKeys[i]);
+        }
+    }
+
+    @Override
+    public T removeMin() {
+        if (size == 0) {
+            throw new EmptyContainerException();
+        }
+        prepareMin();
+        T min = items[0][bucketSizes[0] - 1];
+        slots.remove(min);
+        removeAt(0, bucketSizes[0] - 1);
+        size--;
+        return min;
+    }
+
+    @Override
+    public T peekMin() {
+        if (size == 0) {
+            throw new EmptyContainerException();
+        }
+        prepareMin();
+        return items[0][bucketSizes[0] - 1];
+    }
+
+    private long keyOf(T item) {
+        long key = keyFunction.applyAsLong(item);
+        if (key < last) {
+            throw new IllegalArgumentException("Key " + key + " is below the last removed key " + last);
+        }
+        return key;
+    }
+
+    @Override
+    public void add(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        if (slots.containsKey(item)) {
+            throw new InvalidElementException();
+        }
+        long key = keyOf(item);
+        push(bucketFor(key), item, key);
+        size++;
+    }
+
+    @Override
+    public boolean contains(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        return slots.containsKey(item);
+    }
+
+    @Override
+    public void remove(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        if (!slots.containsKey(item)) {
+            throw new InvalidElementException();
+        }
+        int slot = slots.remove(item);
+        removeAt(bucketFor(keyFunction.applyAsLong(item)), slot);
+        size--;
+    }
+
+    @Override
+    public void replace(T oldItem, T newItem) {
+        if (newItem == null) {
+            throw new IllegalArgumentException();
+        }
+        if (!slots.containsKey(oldItem) || slots.containsKey(newItem)) {
+            throw new InvalidElementException();
+        }
+        long key = keyOf(newItem);
+        remove(oldItem);
+        push(bucketFor(key), newItem, key);
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
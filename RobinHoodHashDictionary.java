@@ -0,0 +1,215 @@
+package datastructures.concrete.dictionaries;
+
+import datastructures.interfaces.IDictionary;
+import misc.exceptions.NoSuchKeyException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Open-addressing hash dictionary using Robin Hood linear probing.
+ *
+ * Keys, values and (spread) hash codes live in parallel arrays, so there is no
+ * per-entry object and a probe only calls equals once the cached hashes match.
+ * A hash of 0 marks an empty slot. Deletion shifts the following cluster back
+ * by one slot instead of leaving tombstones.
+ */
+public class RobinHoodHashDictionary<K, V> implements IDictionary<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final double lambda;
+    private K[] keys;
+    private V[] values;
+    private int[] hashes;
+    private int mask;
+    private int threshold;
+    private int size;
+
+    public RobinHoodHashDictionary() {
+        this(0.75);
+    }
+
+    public RobinHoodHashDictionary(double lambda) {
+        this(DEFAULT_CAPACITY, lambda);
+    }
+
+    public RobinHoodHashDictionary(int expectedSize, double lambda) {
+        if (lambda <= 0 || lambda >= 1 || expectedSize < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.lambda = lambda;
+        this.size = 0;
+        allocate(Math.max(DEFAULT_CAPACITY, Hashing.tableSizeFor(expectedSize, lambda)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        this.keys = (K[]) new Object[capacity];
+        this.values = (V[]) new Object[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+        this.threshold = (int) (capacity * lambda);
+    }
+
+    private static int hash(Object key) {
+        int h = Hashing.spread(key);
+        return h == 0 ? 1 : h;
+    }
+
+    private int probeDistance(int hash, int slot) {
+        return (slot - (hash & mask)) & mask;
+    }
+
+    private int indexOf(K key) {
+        int h = hash(key);
+        int i = h & mask;
+        int dist = 0;
+        while (true) {
+            int current = hashes[i];
+            if (current == 0 || probeDistance(current, i) < dist) {
+                return -1;
+            }
+            if (current == h) {
+                K other = keys[i];
+                if (other == key || (key != null && key.equals(other))) {
+                    return i;
+                }
+            }
+            i = (i + 1) & mask;
+            dist++;
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            throw new NoSuchKeyException();
+        }
+        return values[i];
+    }
+
+    @Override
+    public void put(K key, V value) {
+        int i = indexOf(key);
+        if (i >= 0) {
+            values[i] = value;
+            return;
+        }
+        if (size + 1 > threshold) {
+            resize(hashes.length * 2);
+        }
+        insertNew(hash(key), key, value);
+        size++;
+    }
+
+    // Places an entry known not to be present, stealing slots from entries
+    // that are closer to their home bucket than the one being carried.
+    private void insertNew(int h, K key, V value) {
+        int i = h & mask;
+        int dist = 0;
+        while (true) {
+            int current = hashes[i];
+            if (current == 0) {
+                hashes[i] = h;
+                keys[i] = key;
+                values[i] = value;
+                return;
+            }
+            int currentDist = probeDistance(current, i);
+            if (currentDist < dist) {
+                K tempKey = keys[i];
+                V tempValue = values[i];
+                hashes[i] = h;
+                keys[i] = key;
+                values[i] = value;
+                h = current;
+                key = tempKey;
+                value = tempValue;
+                dist = currentDist;
+            }
+            i = (i + 1) & mask;
+            dist++;
+        }
+    }
+
+    private void resize(int capacity) {
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(capacity);
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != 0) {
+                insertNew(oldHashes[i], oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            throw new NoSuchKeyException();
+        }
+        V value = values[i];
+        int next = (i + 1) & mask;
+        while (hashes[next] != 0 && probeDistance(hashes[next], next) > 0) {
+            hashes[i] = hashes[next];
+            keys[i] = keys[next];
+            values[i] = values[next];
+            i = next;
+            next = (next + 1) & mask;
+        }
+        hashes[i] = 0;
+        keys[i] = null;
+        values[i] = null;
+        size--;
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new RobinHoodIterator<>(this.hashes, this.keys, this.values);
+    }
+
+    private static class RobinHoodIterator<K, V> implements Iterator<KVPair<K, V>> {
+        private final int[] hashes;
+        private final K[] keys;
+        private final V[] values;
+        private int i;
+
+        public RobinHoodIterator(int[] hashes, K[] keys, V[] values) {
+            this.hashes = hashes;
+            this.keys = keys;
+            this.values = values;
+            this.i = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (i < hashes.length && hashes[i] == 0) {
+                i++;
+            }
+            return i < hashes.length;
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            KVPair<K, V> pair = new KVPair<>(keys[i], values[i]);
+            i++;
+            return pair;
+        }
+    }
+}
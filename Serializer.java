@@ -0,0 +1,14 @@
+package datastructures.concrete.dictionaries;
+
+/**
+ * Converts keys or values to and from bytes for MappedHashDictionary.
+ *
+ * Keys are compared by their serialized form, so two keys must serialize to
+ * the same bytes exactly when they are equal. Null is handled by the
+ * dictionary and is never passed to a serializer.
+ */
+public interface Serializer<T> {
+    byte[] serialize(T item);
+
+    T deserialize(byte[] bytes);
+}
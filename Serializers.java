@@ -0,0 +1,45 @@
+package datastructures.concrete.dictionaries;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public final class Serializers {
+    public static final Serializer<String> STRING = new Serializer<String>() {
+        @Override
+        public byte[] serialize(String item) {
+            return item.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String deserialize(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    public static final Serializer<Integer> INTEGER = new Serializer<Integer>() {
+        @Override
+        public byte[] serialize(Integer item) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(item).array();
+        }
+
+        @Override
+        public Integer deserialize(byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getInt();
+        }
+    };
+
+    public static final Serializer<Long> LONG = new Serializer<Long>() {
+        @Override
+        public byte[] serialize(Long item) {
+            return ByteBuffer.allocate(Long.BYTES).putLong(item).array();
+        }
+
+        @Override
+        public Long deserialize(byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getLong();
+        }
+    };
+
+    private Serializers() {
+    }
+}
@@ -0,0 +1,27 @@
+package datastructures.concrete;
+
+import datastructures.interfaces.IList;
+
+/**
+ * A path between two vertices together with its total weight.
+ */
+public class ShortestPath<E> {
+    private final IList<E> path;
+    private final double distance;
+
+    public ShortestPath(IList<E> path, double distance) {
+        this.path = path;
+        this.distance = distance;
+    }
+
+    /**
+     * Returns the edges from the start vertex to the end vertex, in order.
+     */
+    public IList<E> getPath() {
+        return path;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+}
@@ -0,0 +1,234 @@
+package datastructures.concrete;
+
+import datastructures.concrete.dictionaries.ObjectIntDictionary;
+import datastructures.interfaces.IEdge;
+import datastructures.interfaces.IList;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches shortest-path queries on a Graph. Enable it with
+ * Graph.enablePathCache.
+ *
+ * Recent (start, end) answers are kept in an LRU cache. A source that keeps
+ * missing is treated as hot once it has been queried HOT_SOURCE_QUERIES
+ * times: its whole shortest path tree is computed and cached, so later
+ * queries from it to any vertex need no search. Both caches are cleared
+ * whenever the graph's version changes, so answers never outlive a mutation.
+ *
+ * Every caller gets its own copy of a cached path, so callers may modify the
+ * returned lists. When several shortest paths tie, a path read from a cached
+ * tree may differ from the one a fresh search would return, but its distance
+ * is always the same.
+ */
+public class ShortestPathCache<V, E extends IEdge<V> & Comparable<E>> {
+    private static final int HOT_SOURCE_QUERIES = 4;
+
+    private final Graph<V, E> graph;
+    private final LruCache<PathKey<V>, ShortestPath<E>> paths;
+    private final LruCache<V, ShortestPathTree<V, E>> trees;
+    private final int maxTrackedSources;
+    private final LongAdder hits;
+    private final LongAdder treeHits;
+    private final LongAdder misses;
+    private ObjectIntDictionary<V> sourceQueries;
+    private long version;
+
+    ShortestPathCache(Graph<V, E> graph, int maxPaths, int maxTrees) {
+        if (maxPaths < 1 || maxTrees < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.graph = graph;
+        this.paths = new LruCache<>(maxPaths);
+        this.trees = maxTrees == 0 ? null : new LruCache<>(maxTrees);
+        this.maxTrackedSources = maxPaths;
+        this.hits = new LongAdder();
+        this.treeHits = new LongAdder();
+        this.misses = new LongAdder();
+        this.sourceQueries = new ObjectIntDictionary<>();
+        this.version = graph.version();
+    }
+
+    public ShortestPath<E> findShortestPath(V start, V end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException();
+        }
+        PathKey<V> key = new PathKey<>(start, end);
+        ShortestPathTree<V, E> tree = null;
+        boolean hot = false;
+        long searched;
+        synchronized (this) {
+            checkVersion();
+            searched = version;
+            ShortestPath<E> cached = paths.get(key);
+            if (cached != null) {
+                hits.increment();
+                return copy(cached);
+            }
+            if (trees != null) {
+                tree = trees.get(start);
+                if (tree == null) {
+                    hot = countQuery(start);
+                }
+            }
+        }
+
+        ShortestPath<E> result;
+        if (tree != null) {
+            treeHits.increment();
+            result = new ShortestPath<>(tree.pathTo(end), tree.distanceTo(end));
+        } else {
+            misses.increment();
+            if (hot) {
+                tree = graph.searchShortestPathTree(start);
+                // store the tree first, since pathTo throws if end is
+                // unreachable and the tree is still worth keeping
+                storeTree(searched, start, tree);
+                result = new ShortestPath<>(tree.pathTo(end), tree.distanceTo(end));
+            } else {
+                result = graph.searchShortestPath(start, end);
+            }
+        }
+
+        synchronized (this) {
+            checkVersion();
+            // an answer computed on an older graph must not be cached
+            if (version == searched) {
+                paths.put(key, result);
+            }
+        }
+        return copy(result);
+    }
+
+    public ShortestPathTree<V, E> shortestPathTree(V source) {
+        if (source == null) {
+            throw new IllegalArgumentException();
+        }
+        long searched = 0;
+        if (trees != null) {
+            synchronized (this) {
+                checkVersion();
+                searched = version;
+                ShortestPathTree<V, E> cached = trees.get(source);
+                if (cached != null) {
+                    treeHits.increment();
+                    return cached;
+                }
+            }
+        }
+        misses.increment();
+        ShortestPathTree<V, E> tree = graph.searchShortestPathTree(source);
+        if (trees != null) {
+            storeTree(searched, source, tree);
+        }
+        return tree;
+    }
+
+    // Caches a tree searched at the given version, unless the graph has
+    // changed since.
+    private synchronized void storeTree(long searched, V source, ShortestPathTree<V, E> tree) {
+        checkVersion();
+        if (version == searched) {
+            trees.put(source, tree);
+        }
+    }
+
+    /**
+     * Returns how many queries were answered from a cached path or tree.
+     */
+    public long hitCount() {
+        return hits.sum() + treeHits.sum();
+    }
+
+    /**
+     * Returns how many of the hits came from a cached shortest path tree.
+     */
+    public long treeHitCount() {
+        return treeHits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public double hitRate() {
+        long hitCount = hitCount();
+        long total = hitCount + missCount();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public synchronized int cachedPaths() {
+        return paths.size();
+    }
+
+    public synchronized int cachedTrees() {
+        return trees == null ? 0 : trees.size();
+    }
+
+    /**
+     * Drops every cached answer. The graph calls this itself when it changes.
+     */
+    public synchronized void invalidate() {
+        paths.clear();
+        if (trees != null) {
+            trees.clear();
+        }
+        sourceQueries = new ObjectIntDictionary<>();
+    }
+
+    private void checkVersion() {
+        long current = graph.version();
+        if (current != version) {
+            invalidate();
+            version = current;
+        }
+    }
+
+    // Counts a missed query from source and returns true once the source has
+    // become hot. Counts are dropped wholesale when too many sources are
+    // tracked, so sources that were hot long ago do not stay hot forever.
+    private boolean countQuery(V source) {
+        if (sourceQueries.size() >= maxTrackedSources && !sourceQueries.containsKey(source)) {
+            sourceQueries = new ObjectIntDictionary<>();
+        }
+        int count = sourceQueries.getOrDefault(source, 0) + 1;
+        if (count >= HOT_SOURCE_QUERIES) {
+            sourceQueries.remove(source);
+            return true;
+        }
+        sourceQueries.put(source, count);
+        return false;
+    }
+
+    private static <E> ShortestPath<E> copy(ShortestPath<E> path) {
+        IList<E> edges = new DoubleLinkedList<>();
+        for (E edge : path.getPath()) {
+            edges.add(edge);
+        }
+        return new ShortestPath<>(edges, path.getDistance());
+    }
+
+    private static class PathKey<V> {
+        private final V start;
+        private final V end;
+
+        public PathKey(V start, V end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof PathKey)) {
+                return false;
+            }
+            PathKey<?> key = (PathKey<?>) other;
+            return start.equals(key.start) && end.equals(key.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * start.hashCode() + end.hashCode();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package datastructures.concrete;
+
+import datastructures.interfaces.IEdge;
+import datastructures.interfaces.IList;
+import misc.exceptions.NoPathExistsException;
+
+import java.util.Arrays;
+
+/**
+ * Point-to-point shortest paths over a CompactGraph.
+ *
+ * A finder owns its scratch arrays and reuses them across queries, so after
+ * the first query a search costs time proportional to the part of the graph
+ * it explores rather than to the whole graph. Labels are invalidated by
+ * bumping a stamp instead of clearing the arrays. Because of this scratch
+ * state a finder must not be shared between threads.
+ *
+ * All three searches stop as soon as the shortest distance to the end vertex
+ * is known and throw NoPathExistsException if it cannot be reached.
+ */
+public class ShortestPathFinder<V, E extends IEdge<V> & Comparable<E>> {
+    private final CompactGraph<V, E> graph;
+    private final Search forward;
+    // only bidirectional searches need this, so it is allocated on first use
+    private Search backward;
+
+    public ShortestPathFinder(CompactGraph<V, E> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        this.graph = graph;
+        this.forward = new Search(graph.numVertices());
+        this.backward = null;
+    }
+
+    public CompactGraph<V, E> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Dijkstra's algorithm on an indexed heap.
+     */
+    public ShortestPath<E> dijkstra(V start, V end) {
+        return search(graph.idOf(start), graph.idOf(end), null);
+    }
+
+    /**
+     * A* search, which settles vertices in order of their distance plus the
+     * heuristic's estimate of the rest of the way to end.
+     */
+    public ShortestPath<E> aStar(V start, V end, Heuristic<V> heuristic) {
+        if (heuristic == null) {
+            throw new IllegalArgumentException();
+        }
+        return search(graph.idOf(start), graph.idOf(end), heuristic);
+    }
+
+    /**
+     * Runs Dijkstra from both ends at once, always growing the side with the
+     * smaller frontier, and stops once the two smallest frontier distances
+     * add up to at least the best path found through a vertex both sides
+     * have reached.
+     */
+    public ShortestPath<E> bidirectional(V start, V end) {
+        int source = graph.idOf(start);
+        int target = graph.idOf(end);
+        if (backward == null) {
+            backward = new Search(graph.numVertices());
+        }
+        forward.reset();
+        backward.reset();
+        forward.label(source, 0.0, -1, 0.0);
+        backward.label(target, 0.0, -1, 0.0);
+        double best = Double.POSITIVE_INFINITY;
+        int meet = -1;
+        if (source == target) {
+            best = 0.0;
+            meet = source;
+        }
+
+        while (!forward.queue.isEmpty() && !backward.queue.isEmpty()) {
+            if (forward.queue.peekMinKey() + backward.queue.peekMinKey() >= best) {
+                break;
+            }
+            Search side = forward.queue.size() <= backward.queue.size() ? forward : backward;
+            Search other = side == forward ? backward : forward;
+            int u = side.queue.removeMin();
+            double cost = side.distances[u];
+            for (int slot = graph.firstSlot(u); slot < graph.endSlot(u); slot++) {
+                int v = graph.target(slot);
+                int edge = graph.edgeId(slot);
+                if (side.relax(v, cost + graph.weight(edge), edge, 0.0) && other.reached(v)) {
+                    double total = side.distances[v] + other.distances[v];
+                    if (total < best) {
+                        best = total;
+                        meet = v;
+                    }
+                }
+            }
+        }
+        if (meet < 0) {
+            throw new NoPathExistsException();
+        }
+
+        IList<E> path = forward.pathTo(source, meet);
+        int current = meet;
+        while (current != target) {
+            int edge = backward.previousEdges[current];
+            path.add(graph.edgeAt(edge));
+            current = otherEnd(edge, current);
+        }
+        return new ShortestPath<>(path, best);
+    }
+
+    /**
+     * Runs Dijkstra from the source until every reachable vertex is settled.
+     */
+    public ShortestPathTree<V, E> shortestPathTree(V source) {
+        return shortestPathTree(graph.idOf(source));
+    }
+
+    ShortestPathTree<V, E> shortestPathTree(int source) {
+        forward.reset();
+        forward.label(source, 0.0, -1, 0.0);
+        while (!forward.queue.isEmpty()) {
+            int u = forward.queue.removeMin();
+            double cost = forward.distances[u];
+            for (int slot = graph.firstSlot(u); slot < graph.endSlot(u); slot++) {
+                int edge = graph.edgeId(slot);
+                forward.relax(graph.target(slot), cost + graph.weight(edge), edge, 0.0);
+            }
+        }
+
+        int n = graph.numVertices();
+        double[] distances = new double[n];
+        int[] previousEdges = new int[n];
+        for (int v = 0; v < n; v++) {
+            if (forward.reached(v)) {
+                distances[v] = forward.distances[v];
+                previousEdges[v] = forward.previousEdges[v];
+            } else {
+                distances[v] = Double.POSITIVE_INFINITY;
+                previousEdges[v] = -1;
+            }
+        }
+        return new ShortestPathTree<>(graph, source, distances, previousEdges);
+    }
+
+    private ShortestPath<E> search(int source, int target, Heuristic<V> heuristic) {
+        V goal = graph.vertexAt(target);
+        forward.reset();
+        forward.label(source, 0.0, -1, estimate(heuristic, source, goal));
+        while (!forward.queue.isEmpty()) {
+            int u = forward.queue.removeMin();
+            if (u == target) {
+                return new ShortestPath<>(forward.pathTo(source, target), forward.distances[target]);
+            }
+            double cost = forward.distances[u];
+            for (int slot = graph.firstSlot(u); slot < graph.endSlot(u); slot++) {
+                int v = graph.target(slot);
+                int edge = graph.edgeId(slot);
+                double newCost = cost + graph.weight(edge);
+                if (!forward.reached(v)) {
+                    forward.label(v, newCost, edge, estimate(heuristic, v, goal));
+                } else {
+                    forward.relax(v, newCost, edge, forward.estimates[v]);
+                }
+            }
+        }
+        throw new NoPathExistsException();
+    }
+
+    private double estimate(Heuristic<V> heuristic, int id, V goal) {
+        if (heuristic == null) {
+            return 0.0;
+        }
+        double estimate = heuristic.estimate(graph.vertexAt(id), goal);
+        if (!(estimate >= 0.0)) {
+            throw new IllegalArgumentException();
+        }
+        return estimate;
+    }
+
+    private int otherEnd(int edge, int vertex) {
+        return graph.source(edge) == vertex ? graph.destination(edge) : graph.source(edge);
+    }
+
+    // Labels for one direction of a search. A vertex is reached once it has a
+    // label for the current stamp, and settled once it is reached and no
+    // longer in the queue.
+    private final class Search {
+        private final double[] distances;
+        private final double[] estimates;
+        private final int[] previousEdges;
+        private final int[] stamps;
+        private final IndexMinPQ queue;
+        private int stamp;
+
+        public Search(int n) {
+            this.distances = new double[n];
+            this.estimates = new double[n];
+            this.previousEdges = new int[n];
+            this.stamps = new int[n];
+            this.queue = new IndexMinPQ(n);
+            this.stamp = 0;
+        }
+
+        public void reset() {
+            queue.clear();
+            stamp++;
+            if (stamp == 0) {
+                // the stamp wrapped around; old labels could look current
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+        }
+
+        public boolean reached(int v) {
+            return stamps[v] == stamp;
+        }
+
+        public void label(int v, double distance, int edge, double estimate) {
+            stamps[v] = stamp;
+            distances[v] = distance;
+            estimates[v] = estimate;
+            previousEdges[v] = edge;
+            queue.add(v, distance + estimate);
+        }
+
+        // Labels v or lowers its distance. Returns false if v is settled or
+        // already has a distance at least as small.
+        public boolean relax(int v, double distance, int edge, double estimate) {
+            if (!reached(v)) {
+                label(v, distance, edge, estimate);
+                return true;
+            }
+            if (distance < distances[v] && queue.contains(v)) {
+                distances[v] = distance;
+                previousEdges[v] = edge;
+                queue.decreaseKey(v, distance + estimate);
+                return true;
+            }
+            return false;
+        }
+
+        public IList<E> pathTo(int source, int target) {
+            IList<E> path = new DoubleLinkedList<>();
+            int current = target;
+            while (current != source) {
+                int edge = previousEdges[current];
+                path.insert(0, graph.edgeAt(edge));
+                current = otherEnd(edge, current);
+            }
+            return path;
+        }
+    }
+}
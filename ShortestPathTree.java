@@ -0,0 +1,66 @@
+package datastructures.concrete;
+
+import datastructures.interfaces.IEdge;
+import datastructures.interfaces.IList;
+import misc.exceptions.NoPathExistsException;
+
+/**
+ * Shortest distances from one source to every vertex of a CompactGraph, with
+ * the last edge of a shortest path to each reachable vertex.
+ */
+public class ShortestPathTree<V, E extends IEdge<V> & Comparable<E>> {
+    private final CompactGraph<V, E> graph;
+    private final int source;
+    private final double[] distances;
+    private final int[] previousEdges;
+
+    ShortestPathTree(CompactGraph<V, E> graph, int source, double[] distances, int[] previousEdges) {
+        this.graph = graph;
+        this.source = source;
+        this.distances = distances;
+        this.previousEdges = previousEdges;
+    }
+
+    public V getSource() {
+        return graph.vertexAt(source);
+    }
+
+    /**
+     * Returns the distance from the source to the vertex, or positive infinity
+     * if the vertex cannot be reached.
+     */
+    public double distanceTo(V vertex) {
+        return distances[graph.idOf(vertex)];
+    }
+
+    public double distanceTo(int id) {
+        return distances[id];
+    }
+
+    public boolean hasPathTo(V vertex) {
+        return distances[graph.idOf(vertex)] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the last edge on a shortest path to the vertex, or null for the
+     * source and for unreachable vertices.
+     */
+    public E previousEdge(V vertex) {
+        int edge = previousEdges[graph.idOf(vertex)];
+        return edge < 0 ? null : graph.edgeAt(edge);
+    }
+
+    public IList<E> pathTo(V vertex) {
+        int current = graph.idOf(vertex);
+        if (distances[current] == Double.POSITIVE_INFINITY) {
+            throw new NoPathExistsException();
+        }
+        IList<E> path = new DoubleLinkedList<>();
+        while (current != source) {
+            int edge = previousEdges[current];
+            path.insert(0, graph.edgeAt(edge));
+            current = graph.source(edge) == current ? graph.destination(edge) : graph.source(edge);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,219 @@
+package datastructures.concrete.dictionaries;
+
+import misc.exceptions.NoSuchKeyException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Bucket used by ChainedHashDictionary once a chain grows past its treeify
+ * threshold. Entries are kept sorted by spread hash and, within a run of equal
+ * hashes, by compareTo when the keys are mutually comparable, so lookups are a
+ * binary search instead of a linear equals scan.
+ *
+ * put and remove still shift the arrays, so they cost O(n) element moves in
+ * a bucket of n keys, and filling one bucket with n colliding keys costs
+ * O(n^2) moves in total. The moves are bulk array copies and the comparisons
+ * stay O(n log n), which is what bounds the cost of a collision attack.
+ */
+class SortedArrayDictionary<K, V> extends HashBucket<K, V> {
+    private K[] keys;
+    private V[] values;
+    private int[] hashes;
+    private int size;
+    // false once a run of equal hashes holds keys that cannot be compared
+    private boolean ordered;
+
+    @SuppressWarnings("unchecked")
+    public SortedArrayDictionary(int capacity) {
+        this.keys = (K[]) new Object[capacity];
+        this.values = (V[]) new Object[capacity];
+        this.hashes = new int[capacity];
+        this.size = 0;
+        this.ordered = true;
+    }
+
+    private static boolean comparable(Object a, Object b) {
+        return a == null || b == null || (a instanceof Comparable && a.getClass() == b.getClass());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareKeys(Object a, Object b) {
+        if (a == null) {
+            return b == null ? 0 : -1;
+        } else if (b == null) {
+            return 1;
+        }
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    private int lowerBound(int hash) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (hashes[mid] < hash) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Returns the index of key, or -(insertionPoint + 1) if it is absent.
+    private int find(K key, int hash) {
+        int start = lowerBound(hash);
+        int end = start;
+        while (end < size && hashes[end] == hash) {
+            end++;
+        }
+        if (ordered) {
+            int lo = start;
+            int hi = end;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (!comparable(key, keys[mid])) {
+                    return linearFind(key, start, end);
+                }
+                int cmp = compareKeys(keys[mid], key);
+                if (cmp < 0) {
+                    lo = mid + 1;
+                } else if (cmp > 0) {
+                    hi = mid;
+                } else if (keys[mid] == key || (key != null && key.equals(keys[mid]))) {
+                    return mid;
+                } else {
+                    // compareTo is inconsistent with equals for these keys;
+                    // any equal key sits in the run of equal hashes, and a new
+                    // one goes next to the keys it compares equal to
+                    int i = linearFind(key, start, end);
+                    return i >= 0 ? i : -(mid + 1);
+                }
+            }
+            return -(lo + 1);
+        }
+        return linearFind(key, start, end);
+    }
+
+    private int linearFind(K key, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (keys[i] == key || (key != null && key.equals(keys[i]))) {
+                return i;
+            }
+        }
+        return -(end + 1);
+    }
+
+    @Override
+    V get(K key, int hash) {
+        int i = find(key, hash);
+        if (i < 0) {
+            throw new NoSuchKeyException();
+        }
+        return values[i];
+    }
+
+    @Override
+    boolean put(K key, int hash, V value) {
+        int i = find(key, hash);
+        if (i >= 0) {
+            values[i] = value;
+            return false;
+        }
+        i = -(i + 1);
+        if (ordered && ((i > 0 && hashes[i - 1] == hash && !comparable(key, keys[i - 1]))
+                || (i < size && hashes[i] == hash && !comparable(key, keys[i])))) {
+            ordered = false;
+        }
+        if (size == keys.length) {
+            grow();
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(values, i, values, i + 1, size - i);
+        System.arraycopy(hashes, i, hashes, i + 1, size - i);
+        keys[i] = key;
+        values[i] = value;
+        hashes[i] = hash;
+        size++;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void grow() {
+        int capacity = keys.length * 2;
+        K[] newKeys = (K[]) new Object[capacity];
+        V[] newValues = (V[]) new Object[capacity];
+        int[] newHashes = new int[capacity];
+        System.arraycopy(keys, 0, newKeys, 0, size);
+        System.arraycopy(values, 0, newValues, 0, size);
+        System.arraycopy(hashes, 0, newHashes, 0, size);
+        keys = newKeys;
+        values = newValues;
+        hashes = newHashes;
+    }
+
+    @Override
+    V remove(K key, int hash) {
+        int i = find(key, hash);
+        if (i < 0) {
+            throw new NoSuchKeyException();
+        }
+        V value = values[i];
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(values, i + 1, values, i, size - i - 1);
+        System.arraycopy(hashes, i + 1, hashes, i, size - i - 1);
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        return value;
+    }
+
+    @Override
+    boolean containsKey(K key, int hash) {
+        return find(key, hash) >= 0;
+    }
+
+    @Override
+    K keyAt(int slot) {
+        return keys[slot];
+    }
+
+    @Override
+    V valueAt(int slot) {
+        return values[slot];
+    }
+
+    @Override
+    int hashAt(int slot) {
+        return hashes[slot];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new SortedArrayIterator();
+    }
+
+    private class SortedArrayIterator implements Iterator<KVPair<K, V>> {
+        private int i = 0;
+
+        @Override
+        public boolean hasNext() {
+            return i < size;
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            KVPair<K, V> pair = new KVPair<>(keys[i], values[i]);
+            i++;
+            return pair;
+        }
+    }
+}